@@ -0,0 +1,99 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserialization of recorded Mailpit API responses, using the same
+ * {@link ObjectMapper} configuration as {@link MailpitClient}.
+ * <p>
+ * The message list is built by replicating the recorded fixture until the mailbox has
+ * the requested size, each copy with a unique ID.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParsingBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int mailboxSize;
+
+	private ObjectMapper objectMapper;
+
+	private byte[] messagesJson;
+
+	private byte[] messageJson;
+
+	private Message message;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new JavaTimeModule());
+
+		ObjectNode fixture = (ObjectNode) objectMapper.readTree(fixture("messages.json"));
+		ArrayNode recorded = (ArrayNode) fixture.get("messages");
+		ArrayNode messages = objectMapper.createArrayNode();
+		for (int i = 0; i < mailboxSize; i++) {
+			ObjectNode copy = recorded.get(i % recorded.size()).deepCopy();
+			copy.put("ID", copy.get("ID").asText() + i);
+			messages.add(copy);
+		}
+		fixture.set("messages", messages);
+		fixture.put("total", mailboxSize);
+		fixture.put("count", mailboxSize);
+		messagesJson = objectMapper.writeValueAsBytes(fixture);
+
+		messageJson = fixture("message.json");
+		message = objectMapper.readValue(messageJson, Message.class);
+	}
+
+	@Benchmark
+	public MessagesResponse parseMessageList() throws IOException {
+		return objectMapper.readValue(messagesJson, MessagesResponse.class);
+	}
+
+	@Benchmark
+	public Message parseMessageDetails() throws IOException {
+		return objectMapper.readValue(messageJson, Message.class);
+	}
+
+	@Benchmark
+	public void formatAddresses(Blackhole blackhole) {
+		blackhole.consume(message.from().toString());
+		for (Address address : message.to()) {
+			blackhole.consume(address.toString());
+		}
+	}
+
+	private static byte[] fixture(String name) throws IOException {
+		try (InputStream in = MessageParsingBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+			if (in == null) {
+				throw new IOException("Fixture not found: " + name);
+			}
+			return in.readAllBytes();
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package ch.martinelli.oss.testcontainers.mailpit.assertions;
+
+import ch.martinelli.oss.testcontainers.mailpit.Address;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory filtering done by {@link MessagesAssert} and the predicate
+ * composition of {@link MessageAwaiter}, without any HTTP calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageFilteringBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int mailboxSize;
+
+	private List<Message> messages;
+
+	private MessageAwaiter awaiter;
+
+	@Setup
+	public void setUp() {
+		messages = new ArrayList<>();
+		Instant created = Instant.parse("2026-10-12T09:31:44Z");
+		for (int i = 0; i < mailboxSize; i++) {
+			List<Address> to = List.of(new Address("User " + (i % 20), "user" + (i % 20) + "@example.com"));
+			messages.add(new Message("id-" + i, "msg-" + i + "@example.com",
+					new Address("Sender", "sender" + (i % 5) + "@example.com"), to, List.of(), List.of(), List.of(),
+					"Subject " + (i % 10), 1024, created.plusMillis(i), false, null, "Snippet " + i, List.of()));
+		}
+		// The awaiter is never started, so the client is not contacted
+		awaiter = new MessageAwaiter(new MailpitClient("http://localhost:0"), Duration.ofSeconds(1),
+				Duration.ofMillis(100))
+			.withSubjectContaining("Subject 3")
+			.from("sender3@example.com")
+			.to("user13@example.com")
+			.withoutAttachments();
+	}
+
+	@Benchmark
+	public MessagesAssert filterChain() {
+		return new MessagesAssert(messages).filteredOnSender("sender3@example.com")
+			.filteredOnRecipient("user13@example.com")
+			.filteredOnSubject("Subject 3")
+			.filteredOnPredicate(message -> !message.read());
+	}
+
+	@Benchmark
+	public void awaiterMatches(Blackhole blackhole) {
+		for (Message message : messages) {
+			blackhole.consume(awaiter.matches(message));
+		}
+	}
+
+}
@@ -0,0 +1,431 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+import ch.martinelli.oss.testcontainers.mailpit.MessageCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * End-to-end ingestion benchmark against a local {@link MailpitContainer}.
+ * <p>
+ * For every Mailpit configuration ({@link Profile}) and every combination of message size
+ * and attachment count, bursts of messages are submitted over SMTP while a
+ * {@link MessageCursor} polls the API. The latency of a message is the time between the
+ * server accepting it over SMTP and its first appearance through {@link MailpitClient}.
+ * Throughput is the number of messages divided by the time from the start of the first
+ * submission to the last message becoming visible.
+ * <p>
+ * Options are passed as {@code key=value} arguments:
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@ingestion -Dingestion.args="bursts=5 burstSize=500 messageSizes=1024,102400 attachments=0,3 profiles=default,tuned"
+ * </pre>
+ *
+ * The report is written as JSON to {@code target/ingestion-report.json} unless
+ * {@code output} is given.
+ */
+public class IngestionBenchmark {
+
+	private static final String SUBJECT_PREFIX = "ingestion-";
+
+	private final int bursts;
+
+	private final int burstSize;
+
+	private final int connections;
+
+	private final List<Integer> messageSizes;
+
+	private final List<Integer> attachmentCounts;
+
+	private final int attachmentSize;
+
+	private final Duration pollInterval;
+
+	private final Duration timeout;
+
+	private final Random random = new Random(42);
+
+	IngestionBenchmark(Map<String, String> options) {
+		this.bursts = Integer.parseInt(options.getOrDefault("bursts", "3"));
+		this.burstSize = Integer.parseInt(options.getOrDefault("burstSize", "200"));
+		this.connections = Integer.parseInt(options.getOrDefault("connections", "4"));
+		this.messageSizes = parseList(options.getOrDefault("messageSizes", "1024,65536"));
+		this.attachmentCounts = parseList(options.getOrDefault("attachments", "0,2"));
+		this.attachmentSize = Integer.parseInt(options.getOrDefault("attachmentSize", "16384"));
+		this.pollInterval = Duration.ofMillis(Long.parseLong(options.getOrDefault("pollIntervalMillis", "10")));
+		this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeoutSeconds", "60")));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Expected key=value but got: " + arg);
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		Path output = Path.of(options.getOrDefault("output", "target/ingestion-report.json"));
+
+		IngestionBenchmark benchmark = new IngestionBenchmark(options);
+		List<ProfileResult> profiles = new ArrayList<>();
+		String image = null;
+		for (String name : options.getOrDefault("profiles", "default,tmpfs,tuned").split(",")) {
+			Profile profile = Profile.valueOf(name.trim().toUpperCase(Locale.ROOT));
+			try (MailpitContainer mailpit = profile.createContainer()) {
+				mailpit.start();
+				image = mailpit.getDockerImageName();
+				System.out.println("Profile " + profile);
+				profiles.add(new ProfileResult(profile, benchmark.run(mailpit)));
+			}
+		}
+		Report report = new Report(image, Instant.now(), Runtime.getRuntime().availableProcessors(),
+				benchmark.connections, profiles);
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.enable(SerializationFeature.INDENT_OUTPUT);
+		Files.createDirectories(output.toAbsolutePath().getParent());
+		objectMapper.writeValue(output.toFile(), report);
+		System.out.println("Report written to " + output.toAbsolutePath());
+	}
+
+	List<ScenarioResult> run(MailpitContainer mailpit) throws InterruptedException {
+		List<ScenarioResult> scenarios = new ArrayList<>();
+		SmtpSubmitter submitter = newSubmitter(mailpit);
+		try {
+			// Warm up connections, the JIT and Mailpit's database
+			if (runScenario(mailpit.getClient(), submitter, messageSizes.get(0), 0, 1).aborted()) {
+				submitter.close();
+				submitter = newSubmitter(mailpit);
+			}
+			for (int messageSize : messageSizes) {
+				for (int attachments : attachmentCounts) {
+					ScenarioResult result = runScenario(mailpit.getClient(), submitter, messageSize, attachments,
+							bursts);
+					System.out.println(result);
+					scenarios.add(result);
+					if (result.aborted()) {
+						// Stalled submissions may still hold connections of the old submitter
+						submitter.close();
+						submitter = newSubmitter(mailpit);
+					}
+				}
+			}
+		}
+		finally {
+			submitter.close();
+		}
+		return scenarios;
+	}
+
+	private SmtpSubmitter newSubmitter(MailpitContainer mailpit) {
+		return new SmtpSubmitter(mailpit.getSmtpHost(), mailpit.getSmtpPort(), connections, Duration.ofSeconds(30));
+	}
+
+	private ScenarioResult runScenario(MailpitClient client, SmtpSubmitter submitter, int messageSize,
+			int attachments, int burstCount) throws InterruptedException {
+		client.deleteAllMessages();
+		MessageCursor cursor = new MessageCursor(client);
+		cursor.next();
+
+		long[] latencies = new long[burstCount * burstSize];
+		Arrays.fill(latencies, -1);
+		int failed = 0;
+		boolean aborted = false;
+		long started = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(connections);
+		try {
+			for (int burst = 0; burst < burstCount; burst++) {
+				try {
+					failed += runBurst(cursor, submitter, executor, burst, messageSize, attachments, latencies);
+				}
+				catch (SubmissionsStalledException e) {
+					// The stalled messages would distort the measurement of the next burst
+					System.out.println(e.getMessage());
+					failed += (burstCount - burst) * burstSize
+							- (int) Arrays.stream(latencies, burst * burstSize, latencies.length)
+								.filter(latency -> latency >= 0)
+								.count();
+					aborted = true;
+					break;
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+		long[] visible = Arrays.stream(latencies).filter(latency -> latency >= 0).toArray();
+		return new ScenarioResult(messageSize, attachments, burstCount, burstSize,
+				LoadReport.of(visible, failed, elapsed), aborted);
+	}
+
+	/**
+	 * Submits one burst and polls until all its messages are visible.
+	 * @return the number of messages that did not become visible within the timeout
+	 */
+	private int runBurst(MessageCursor cursor, SmtpSubmitter submitter, ExecutorService executor, int burst,
+			int messageSize, int attachments, long[] latencies) throws InterruptedException {
+		int offset = burst * burstSize;
+		List<SmtpMessage> messages = new ArrayList<>();
+		for (int i = 0; i < burstSize; i++) {
+			messages.add(createMessage(offset + i, messageSize, attachments));
+		}
+		long[] accepted = new long[burstSize];
+		List<Future<?>> submissions = new ArrayList<>();
+		for (int i = 0; i < burstSize; i++) {
+			int number = i;
+			submissions.add(executor.submit(() -> {
+				submitter.submit(messages.get(number));
+				accepted[number] = System.nanoTime();
+			}));
+		}
+
+		Arrays.fill(latencies, offset, offset + burstSize, -1);
+		int pending = burstSize;
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (pending > 0 && System.nanoTime() < deadline) {
+			for (Message message : cursor.next()) {
+				long seen = System.nanoTime();
+				if (message.subject() == null || !message.subject().startsWith(SUBJECT_PREFIX)) {
+					continue;
+				}
+				int number = Integer.parseInt(message.subject().substring(SUBJECT_PREFIX.length())) - offset;
+				if (number < 0 || number >= burstSize) {
+					// A late message of an earlier burst, already counted as missing there
+					continue;
+				}
+				// A message may show up before the submitting thread recorded the acceptance
+				awaitSubmission(submissions.get(number));
+				latencies[offset + number] = Math.max(0, seen - accepted[number]);
+				pending--;
+			}
+			if (pending > 0) {
+				TimeUnit.NANOSECONDS.sleep(pollInterval.toNanos());
+			}
+		}
+		awaitSubmissions(burst, submissions);
+		return pending;
+	}
+
+	/**
+	 * Waits for the submissions of a burst that are still running, so that they do not
+	 * overlap with the next burst.
+	 * @throws SubmissionsStalledException if they do not finish within the timeout
+	 */
+	private void awaitSubmissions(int burst, List<Future<?>> submissions) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		for (Future<?> submission : submissions) {
+			try {
+				submission.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+			catch (ExecutionException e) {
+				// Counted as missing
+			}
+			catch (TimeoutException e) {
+				submissions.forEach(pending -> pending.cancel(true));
+				throw new SubmissionsStalledException(
+						"Submissions of burst " + burst + " did not finish within " + timeout + ", aborting scenario");
+			}
+		}
+	}
+
+	private void awaitSubmission(Future<?> submission) throws InterruptedException {
+		try {
+			submission.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (ExecutionException | TimeoutException e) {
+			throw new IllegalStateException("Submission failed", e);
+		}
+	}
+
+	private SmtpMessage createMessage(int number, int messageSize, int attachments) {
+		String from = "sender@example.com";
+		String to = "user" + number + "@example.com";
+		String subject = SUBJECT_PREFIX + number;
+		String body = wrap(randomText(messageSize));
+		if (attachments == 0) {
+			return SmtpMessage.of(from, to, subject, body);
+		}
+		String boundary = "boundary-" + number;
+		StringBuilder content = new StringBuilder();
+		content.append("From: ").append(from).append("\r\n");
+		content.append("To: ").append(to).append("\r\n");
+		content.append("Subject: ").append(subject).append("\r\n");
+		content.append("MIME-Version: 1.0\r\n");
+		content.append("Content-Type: multipart/mixed; boundary=\"").append(boundary).append("\"\r\n\r\n");
+		content.append("--").append(boundary).append("\r\n");
+		content.append("Content-Type: text/plain; charset=UTF-8\r\n\r\n");
+		content.append(body).append("\r\n");
+		for (int i = 0; i < attachments; i++) {
+			byte[] data = new byte[attachmentSize];
+			random.nextBytes(data);
+			content.append("--").append(boundary).append("\r\n");
+			content.append("Content-Type: application/octet-stream\r\n");
+			content.append("Content-Disposition: attachment; filename=\"attachment-").append(i).append(".bin\"\r\n");
+			content.append("Content-Transfer-Encoding: base64\r\n\r\n");
+			content.append(wrap(Base64.getEncoder().encodeToString(data))).append("\r\n");
+		}
+		content.append("--").append(boundary).append("--\r\n");
+		return new SmtpMessage(from, List.of(to), content.toString());
+	}
+
+	private String randomText(int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append((char) ('a' + random.nextInt(26)));
+		}
+		return text.toString();
+	}
+
+	private static String wrap(String text) {
+		StringBuilder wrapped = new StringBuilder(text.length() + text.length() / 38);
+		for (int i = 0; i < text.length(); i += 76) {
+			wrapped.append(text, i, Math.min(i + 76, text.length())).append("\r\n");
+		}
+		return wrapped.toString();
+	}
+
+	private static List<Integer> parseList(String value) {
+		List<Integer> values = new ArrayList<>();
+		for (String part : value.split(",")) {
+			values.add(Integer.parseInt(part.trim()));
+		}
+		return values;
+	}
+
+	/**
+	 * Mailpit configurations to compare.
+	 */
+	enum Profile {
+
+		/**
+		 * Mailpit's defaults: database on the overlay filesystem, at most 500 messages.
+		 */
+		DEFAULT,
+
+		/**
+		 * Database on a tmpfs mount.
+		 */
+		TMPFS,
+
+		/**
+		 * Database on a tmpfs mount, no message limit, no version check, no reverse DNS
+		 * lookups and no compression.
+		 */
+		TUNED;
+
+		MailpitContainer createContainer() {
+			MailpitContainer container = new MailpitContainer();
+			return switch (this) {
+				case DEFAULT -> container;
+				case TMPFS -> container.withTmpfsDatabase();
+				case TUNED -> container.withTmpfsDatabase()
+					.withMaxMessages(0)
+					.withVersionCheckDisabled()
+					.withReverseDnsDisabled()
+					.withCompression(0);
+			};
+		}
+
+	}
+
+	/**
+	 * The machine-readable benchmark report.
+	 *
+	 * @param image the Mailpit image
+	 * @param finishedAt when the benchmark finished
+	 * @param processors the number of available processors
+	 * @param connections the number of SMTP connections
+	 * @param profiles the results per Mailpit configuration
+	 */
+	record Report(String image, Instant finishedAt, int processors, int connections, List<ProfileResult> profiles) {
+	}
+
+	/**
+	 * The results of one Mailpit configuration.
+	 *
+	 * @param profile the configuration
+	 * @param scenarios the results per scenario
+	 */
+	record ProfileResult(Profile profile, List<ScenarioResult> scenarios) {
+	}
+
+	/**
+	 * The result of one combination of message size and attachment count.
+	 *
+	 * @param messageSize the body size in bytes
+	 * @param attachments the number of attachments per message
+	 * @param bursts the number of bursts
+	 * @param burstSize the number of messages per burst
+	 * @param visible the number of messages that became visible
+	 * @param missing the number of messages that did not become visible in time
+	 * @param elapsedMillis the total time of the scenario
+	 * @param throughput the number of visible messages per second
+	 * @param p50Millis the median submit-to-visible latency
+	 * @param p90Millis the 90th percentile submit-to-visible latency
+	 * @param p99Millis the 99th percentile submit-to-visible latency
+	 * @param maxMillis the maximum submit-to-visible latency
+	 * @param aborted whether the scenario was aborted because submissions stalled; the
+	 * remaining bursts are counted as missing
+	 */
+	record ScenarioResult(int messageSize, int attachments, int bursts, int burstSize, int visible, int missing,
+			long elapsedMillis, double throughput, double p50Millis, double p90Millis, double p99Millis,
+			double maxMillis, boolean aborted) {
+
+		ScenarioResult(int messageSize, int attachments, int bursts, int burstSize, LoadReport report,
+				boolean aborted) {
+			this(messageSize, attachments, bursts, burstSize, report.sent(), report.failed(),
+					report.elapsed().toMillis(), report.throughput(), millis(report.p50()), millis(report.p90()),
+					millis(report.p99()), millis(report.max()), aborted);
+		}
+
+		private static double millis(Duration duration) {
+			return duration.toNanos() / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"size=%d attachments=%d visible=%d missing=%d throughput=%.1f msg/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+					messageSize, attachments, visible, missing, throughput, p50Millis, p90Millis, p99Millis,
+					maxMillis) + (aborted ? " (aborted)" : "");
+		}
+
+	}
+
+	/**
+	 * Thrown when the submissions of a burst do not finish in time.
+	 */
+	private static final class SubmissionsStalledException extends RuntimeException {
+
+		SubmissionsStalledException(String message) {
+			super(message);
+		}
+
+	}
+
+}
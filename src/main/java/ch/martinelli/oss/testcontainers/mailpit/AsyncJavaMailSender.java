@@ -0,0 +1,328 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link JavaMailSender} that queues messages and returns immediately, so that the
+ * caller does not wait for SMTP round trips.
+ * <p>
+ * A background thread takes up to {@code batchSize} queued messages at a time and sends
+ * them with a single call to the delegate, which is one SMTP session for a
+ * {@link org.springframework.mail.javamail.JavaMailSenderImpl}. Send failures are
+ * collected and reported by the next {@link #flush()}. If the background thread dies, for
+ * example because the delegate throws an {@link Error}, waiting and sending fail with a
+ * {@link MailSendException} instead of blocking forever.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * AsyncJavaMailSender mailSender = new AsyncJavaMailSender(javaMailSenderImpl, 50);
+ * orderService.placeOrders(200); // sends confirmations through mailSender
+ *
+ * mailSender.flush();
+ * assertThat(mailpit.getClient().getMessageCount()).isEqualTo(200);
+ * }</pre>
+ */
+@SuppressWarnings({ "java:S2142", "java:S1181" })
+public class AsyncJavaMailSender implements JavaMailSender, AutoCloseable {
+
+	private final JavaMailSender delegate;
+
+	private final int batchSize;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final Condition queued = lock.newCondition();
+
+	private final Condition drained = lock.newCondition();
+
+	private final Deque<MimeMessage> queue = new ArrayDeque<>();
+
+	private final Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+
+	private final Thread worker;
+
+	private int pending;
+
+	private boolean closed;
+
+	private Throwable workerFailure;
+
+	/**
+	 * Creates an asynchronous mail sender and starts its background thread.
+	 * @param delegate the sender that sends the batches
+	 * @param batchSize the maximum number of messages sent in one SMTP session
+	 */
+	public AsyncJavaMailSender(JavaMailSender delegate, int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+		}
+		this.delegate = delegate;
+		this.batchSize = batchSize;
+		this.worker = new Thread(this::sendBatches, "mailpit-async-sender");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	@Override
+	public MimeMessage createMimeMessage() {
+		return delegate.createMimeMessage();
+	}
+
+	@Override
+	public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+		return delegate.createMimeMessage(contentStream);
+	}
+
+	/**
+	 * Queues the messages for sending.
+	 * @param simpleMessages the messages
+	 * @throws MailSendException if the sender is closed
+	 */
+	@Override
+	public void send(SimpleMailMessage... simpleMessages) throws MailException {
+		List<MimeMessage> mimeMessages = new ArrayList<>(simpleMessages.length);
+		for (SimpleMailMessage simpleMessage : simpleMessages) {
+			MimeMailMessage message = new MimeMailMessage(createMimeMessage());
+			simpleMessage.copyTo(message);
+			mimeMessages.add(message.getMimeMessage());
+		}
+		send(mimeMessages.toArray(MimeMessage[]::new));
+	}
+
+	/**
+	 * Queues the messages for sending.
+	 * @param mimeMessages the messages
+	 * @throws MailSendException if the sender is closed or its background thread died
+	 */
+	@Override
+	public void send(MimeMessage... mimeMessages) throws MailException {
+		lock.lock();
+		try {
+			if (closed) {
+				throw new MailSendException("Mail sender is closed");
+			}
+			checkWorker();
+			queue.addAll(List.of(mimeMessages));
+			pending += mimeMessages.length;
+			queued.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of messages that are queued or being sent.
+	 * @return the number of pending messages
+	 */
+	public int getPendingCount() {
+		lock.lock();
+		try {
+			return pending;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until all queued messages have been sent.
+	 * @param timeout the maximum time to wait
+	 * @return {@code true} if the queue was drained, {@code false} if the timeout elapsed
+	 * first
+	 * @throws MailSendException if the background thread died before the queue was
+	 * drained
+	 */
+	public boolean awaitDrain(Duration timeout) {
+		long remaining = timeout.toNanos();
+		lock.lock();
+		try {
+			while (pending > 0) {
+				checkWorker();
+				if (remaining <= 0) {
+					return false;
+				}
+				remaining = drained.awaitNanos(remaining);
+			}
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException("Interrupted while waiting for queued messages", e);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until all queued messages have been sent and reports the messages that failed
+	 * since the last flush.
+	 * @throws MailSendException if messages failed, with the failed messages and their
+	 * exceptions, or if the background thread died
+	 */
+	public void flush() throws MailException {
+		awaitDrain(Duration.ofNanos(Long.MAX_VALUE));
+		Map<Object, Exception> failures;
+		lock.lock();
+		try {
+			failures = new LinkedHashMap<>(failedMessages);
+			failedMessages.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+		if (!failures.isEmpty()) {
+			throw new MailSendException(failures);
+		}
+	}
+
+	/**
+	 * Sends the queued messages, stops the background thread and closes the delegate if
+	 * it is {@link AutoCloseable}. Failures are not reported; call {@link #flush()} first
+	 * to check for them.
+	 * @throws MailSendException if the queued messages could not be sent within a minute,
+	 * in which case the background thread is interrupted before the delegate is closed
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+			queued.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+		try {
+			worker.join(TimeUnit.MINUTES.toMillis(1));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		boolean stuck = worker.isAlive();
+		if (stuck) {
+			worker.interrupt();
+		}
+		if (delegate instanceof AutoCloseable closeable) {
+			try {
+				closeable.close();
+			}
+			catch (Exception e) {
+				throw new MailSendException("Failed to close mail sender", e);
+			}
+		}
+		if (stuck) {
+			throw new MailSendException(
+					"Mail sender thread did not finish, " + getPendingCount() + " messages may not have been sent");
+		}
+	}
+
+	private void sendBatches() {
+		try {
+			while (true) {
+				List<MimeMessage> batch = nextBatch();
+				if (batch.isEmpty()) {
+					return;
+				}
+				Map<Object, Exception> failures = send(batch);
+				lock.lock();
+				try {
+					failedMessages.putAll(failures);
+					pending -= batch.size();
+					if (pending == 0) {
+						drained.signalAll();
+					}
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+		catch (Throwable e) {
+			// Wake up waiting callers, the queued messages will never be sent
+			lock.lock();
+			try {
+				workerFailure = e;
+				drained.signalAll();
+			}
+			finally {
+				lock.unlock();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Fails if the background thread died. Must be called while holding the lock.
+	 */
+	private void checkWorker() {
+		if (workerFailure != null) {
+			throw new MailSendException(
+					"Mail sender thread died, " + pending + " messages were not sent: " + workerFailure, workerFailure);
+		}
+	}
+
+	/**
+	 * Waits for queued messages and takes up to a batch of them. Returns an empty batch
+	 * once the sender is closed and the queue is empty.
+	 */
+	private List<MimeMessage> nextBatch() {
+		lock.lock();
+		try {
+			while (queue.isEmpty() && !closed) {
+				queued.awaitUninterruptibly();
+			}
+			List<MimeMessage> batch = new ArrayList<>(Math.min(queue.size(), batchSize));
+			while (!queue.isEmpty() && batch.size() < batchSize) {
+				batch.add(queue.pollFirst());
+			}
+			return batch;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private Map<Object, Exception> send(List<MimeMessage> batch) {
+		try {
+			delegate.send(batch.toArray(MimeMessage[]::new));
+			return Map.of();
+		}
+		catch (MailSendException e) {
+			if (!e.getFailedMessages().isEmpty()) {
+				return e.getFailedMessages();
+			}
+			return failAll(batch, e);
+		}
+		catch (RuntimeException e) {
+			return failAll(batch, e);
+		}
+	}
+
+	private static Map<Object, Exception> failAll(List<MimeMessage> batch, Exception e) {
+		Map<Object, Exception> failures = new LinkedHashMap<>();
+		batch.forEach(message -> failures.put(message, e));
+		return failures;
+	}
+
+}
@@ -0,0 +1,71 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Fetches {@link MailpitInfo} at most once per time to live and serves it from a cache in
+ * between, so that health checks and metric scrapes put a constant load on Mailpit
+ * regardless of how often they run.
+ * <p>
+ * Failures are cached as well: while Mailpit is unreachable, callers get the cached
+ * exception until the time to live has passed.
+ */
+public class CachedMailpitInfo {
+
+	private final MailpitClient client;
+
+	private final long timeToLiveNanos;
+
+	private final LongSupplier nanoTime;
+
+	private MailpitInfo info;
+
+	private MailpitException failure;
+
+	private long fetchedAtNanos;
+
+	private boolean fetched;
+
+	/**
+	 * Creates a cache for the info of the Mailpit instance of the given client.
+	 * @param client the Mailpit client
+	 * @param timeToLive how long a fetched result is served from the cache
+	 */
+	public CachedMailpitInfo(MailpitClient client, Duration timeToLive) {
+		this(client, timeToLive, System::nanoTime);
+	}
+
+	CachedMailpitInfo(MailpitClient client, Duration timeToLive, LongSupplier nanoTime) {
+		this.client = client;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Returns the cached info, fetching it first if it is older than the time to live.
+	 * Concurrent callers wait for a single fetch.
+	 * @return the Mailpit info
+	 * @throws MailpitException if the last fetch failed
+	 */
+	public synchronized MailpitInfo get() {
+		long now = nanoTime.getAsLong();
+		if (!fetched || now - fetchedAtNanos >= timeToLiveNanos) {
+			try {
+				info = client.getInfo();
+				failure = null;
+			}
+			catch (MailpitException e) {
+				info = null;
+				failure = e;
+			}
+			fetchedAtNanos = now;
+			fetched = true;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return info;
+	}
+
+}
@@ -0,0 +1,110 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mailpit chaos triggers, which make the SMTP server randomly reject parts of the SMTP
+ * transaction with an error code. Chaos must be enabled on the container with
+ * {@link MailpitContainer#withChaosEnabled()}.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * client.setChaosTriggers(ChaosTriggers.none()
+ *     .withSender(451, 10)
+ *     .withRecipient(550, 5));
+ * }</pre>
+ *
+ * @param sender the trigger for the {@code MAIL FROM} command
+ * @param recipient the trigger for the {@code RCPT TO} command
+ * @param authentication the trigger for authentication
+ * @see <a href="https://mailpit.axllent.org/docs/integration/chaos/">Mailpit Chaos</a>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChaosTriggers(@JsonProperty("Sender") Trigger sender, @JsonProperty("Recipient") Trigger recipient,
+		@JsonProperty("Authentication") Trigger authentication) {
+
+	private static final int DEFAULT_ERROR_CODE = 451;
+
+	/**
+	 * Returns triggers that never fire.
+	 * @return the triggers
+	 */
+	public static ChaosTriggers none() {
+		Trigger disabled = new Trigger(DEFAULT_ERROR_CODE, 0);
+		return new ChaosTriggers(disabled, disabled, disabled);
+	}
+
+	/**
+	 * Returns a copy with the given sender trigger.
+	 * @param errorCode the SMTP error code to respond with
+	 * @param probability the probability in percent (0-100)
+	 * @return the new triggers
+	 */
+	public ChaosTriggers withSender(int errorCode, int probability) {
+		return new ChaosTriggers(new Trigger(errorCode, probability), recipient, authentication);
+	}
+
+	/**
+	 * Returns a copy with the given recipient trigger.
+	 * @param errorCode the SMTP error code to respond with
+	 * @param probability the probability in percent (0-100)
+	 * @return the new triggers
+	 */
+	public ChaosTriggers withRecipient(int errorCode, int probability) {
+		return new ChaosTriggers(sender, new Trigger(errorCode, probability), authentication);
+	}
+
+	/**
+	 * Returns a copy with the given authentication trigger.
+	 * @param errorCode the SMTP error code to respond with
+	 * @param probability the probability in percent (0-100)
+	 * @return the new triggers
+	 */
+	public ChaosTriggers withAuthentication(int errorCode, int probability) {
+		return new ChaosTriggers(sender, recipient, new Trigger(errorCode, probability));
+	}
+
+	/**
+	 * Formats the triggers for Mailpit's {@code MP_CHAOS_TRIGGERS} setting, for example
+	 * {@code Sender:451:10,Recipient:550:5}. Triggers with probability 0 are omitted.
+	 * @return the formatted triggers
+	 */
+	String toSetting() {
+		List<String> settings = new ArrayList<>();
+		addSetting(settings, "Sender", sender);
+		addSetting(settings, "Recipient", recipient);
+		addSetting(settings, "Authentication", authentication);
+		return String.join(",", settings);
+	}
+
+	private static void addSetting(List<String> settings, String name, Trigger trigger) {
+		if (trigger != null && trigger.probability() > 0) {
+			settings.add(name + ":" + trigger.errorCode() + ":" + trigger.probability());
+		}
+	}
+
+	/**
+	 * A single chaos trigger.
+	 *
+	 * @param errorCode the SMTP error code to respond with
+	 * @param probability the probability in percent (0-100) that the trigger fires
+	 */
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public record Trigger(@JsonProperty("ErrorCode") int errorCode, @JsonProperty("Probability") int probability) {
+
+		public Trigger {
+			if (probability < 0 || probability > 100) {
+				throw new IllegalArgumentException("Probability must be between 0 and 100 but was " + probability);
+			}
+		}
+
+	}
+
+}
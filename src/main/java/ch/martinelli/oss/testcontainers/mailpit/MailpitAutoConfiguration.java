@@ -1,11 +1,17 @@
 package ch.martinelli.oss.testcontainers.mailpit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.health.autoconfigure.contributor.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.health.contributor.HealthIndicator;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -22,13 +28,27 @@ import java.util.Properties;
  * directly from the container, and these defaults are not used.
  * <p>
  * This configuration also provides a {@link JavaMailSender} bean configured from
- * {@link MailpitConnectionDetails} when present.
+ * {@link MailpitConnectionDetails} when present. With {@code mailpit.smtp-pool.enabled}
+ * set to {@code true}, it is a {@link PooledJavaMailSender} that reuses SMTP connections.
+ * With {@code mailpit.smtp-async.enabled} set to {@code true}, it is wrapped in an
+ * {@link AsyncJavaMailSender} that sends queued messages in batches.
+ * <p>
+ * When Micrometer is on the classpath and a {@link MeterRegistry} bean is present, the
+ * {@link MailpitClient} bean records metrics with a
+ * {@link MicrometerMailpitClientObserver}, and a {@link MailpitMeterBinder} provides
+ * mailbox gauges. With Spring Boot Health on the classpath, a
+ * {@link MailpitHealthIndicator} is registered. Both read the Mailpit info through a
+ * {@link CachedMailpitInfo} that is refreshed at most every
+ * {@code mailpit.info-cache-ttl}.
  *
  * @see MailpitConnectionDetails
  * @see MailpitContainerConnectionDetailsFactory
  */
-@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration")
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration",
+		afterName = { "org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConfiguration",
+				"org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration" })
 @EnableConfigurationProperties(MailpitProperties.class)
+@ImportRuntimeHints(MailpitRuntimeHints.class)
 public class MailpitAutoConfiguration {
 
 	/**
@@ -50,14 +70,34 @@ public class MailpitAutoConfiguration {
 	 * Creates a {@link MailpitClient} bean using the provided
 	 * {@link MailpitConnectionDetails}.
 	 * <p>
-	 * This client can be autowired in tests to interact with the Mailpit REST API.
+	 * This client can be autowired in tests to interact with the Mailpit REST API. Its
+	 * timeouts are configured with {@code mailpit.client.*}, and it reports to the
+	 * {@link MailpitClientObserver} bean if there is one.
 	 * @param connectionDetails the Mailpit connection details
+	 * @param properties the Mailpit configuration properties
+	 * @param observer the observer of the client
 	 * @return the Mailpit client
 	 */
 	@Bean
 	@ConditionalOnMissingBean(MailpitClient.class)
-	MailpitClient mailpitClient(MailpitConnectionDetails connectionDetails) {
-		return new MailpitClient(connectionDetails.getHttpUrl());
+	MailpitClient mailpitClient(MailpitConnectionDetails connectionDetails, MailpitProperties properties,
+			ObjectProvider<MailpitClientObserver> observer) {
+		MailpitProperties.Client client = properties.client();
+		return new MailpitClient(connectionDetails.getHttpUrl(), client.connectTimeout(), client.requestTimeout())
+			.withObserver(observer.getIfAvailable(() -> MailpitClientObserver.NOOP));
+	}
+
+	/**
+	 * Creates the {@link CachedMailpitInfo} shared by the health indicator and the
+	 * mailbox gauges.
+	 * @param client the Mailpit client
+	 * @param properties the Mailpit configuration properties
+	 * @return the cached Mailpit info
+	 */
+	@Bean
+	@ConditionalOnMissingBean(CachedMailpitInfo.class)
+	CachedMailpitInfo cachedMailpitInfo(MailpitClient client, MailpitProperties properties) {
+		return new CachedMailpitInfo(client, properties.infoCacheTtl());
 	}
 
 	/**
@@ -66,24 +106,103 @@ public class MailpitAutoConfiguration {
 	 * <p>
 	 * This bean is created when {@link MailpitConnectionDetails} is available (either
 	 * from {@code @ServiceConnection} or from properties) and no other
-	 * {@link JavaMailSender} is present.
+	 * {@link JavaMailSender} is present. When the SMTP pool is enabled, a
+	 * {@link PooledJavaMailSender} with at most {@code mailpit.smtp-pool.max-size}
+	 * connections is created. When asynchronous sending is enabled, the sender is wrapped
+	 * in an {@link AsyncJavaMailSender} with batches of at most
+	 * {@code mailpit.smtp-async.batch-size} messages. SMTP timeouts and additional
+	 * Jakarta Mail properties are configured with {@code mailpit.smtp.*}.
 	 * @param connectionDetails the Mailpit connection details
+	 * @param properties the Mailpit configuration properties
 	 * @return the configured JavaMailSender
 	 */
 	@Bean
 	@ConditionalOnClass(JavaMailSender.class)
 	@ConditionalOnBean(MailpitConnectionDetails.class)
 	@ConditionalOnMissingBean(JavaMailSender.class)
-	JavaMailSender javaMailSender(MailpitConnectionDetails connectionDetails) {
-		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+	JavaMailSender javaMailSender(MailpitConnectionDetails connectionDetails, MailpitProperties properties) {
+		MailpitProperties.SmtpPool smtpPool = properties.smtpPool();
+		JavaMailSenderImpl mailSender = smtpPool.enabled() ? new PooledJavaMailSender(smtpPool.maxSize())
+				: new JavaMailSenderImpl();
 		mailSender.setHost(connectionDetails.getHost());
 		mailSender.setPort(connectionDetails.getPort());
+		MailpitProperties.Smtp smtp = properties.smtp();
 		var props = new Properties();
 		props.put("mail.smtp.localhost", "localhost");
 		props.put("mail.from", "noreply@localhost");
+		props.put("mail.smtp.connectiontimeout", String.valueOf(smtp.connectTimeout().toMillis()));
+		props.put("mail.smtp.timeout", String.valueOf(smtp.readTimeout().toMillis()));
+		props.put("mail.smtp.writetimeout", String.valueOf(smtp.writeTimeout().toMillis()));
+		props.putAll(smtp.properties());
 
 		mailSender.setJavaMailProperties(props);
+		MailpitProperties.SmtpAsync smtpAsync = properties.smtpAsync();
+		if (smtpAsync.enabled()) {
+			return new AsyncJavaMailSender(mailSender, smtpAsync.batchSize());
+		}
 		return mailSender;
 	}
 
+	/**
+	 * Records metrics of the {@link MailpitClient} bean in the {@link MeterRegistry}.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnBean(MeterRegistry.class)
+	static class MailpitMetricsConfiguration {
+
+		/**
+		 * Creates a {@link MailpitClientObserver} that records Micrometer metrics.
+		 * @param registry the meter registry
+		 * @return the observer
+		 */
+		@Bean
+		@ConditionalOnMissingBean(MailpitClientObserver.class)
+		MailpitClientObserver mailpitClientObserver(MeterRegistry registry) {
+			return new MicrometerMailpitClientObserver(registry);
+		}
+
+		/**
+		 * Creates a {@link MailpitMeterBinder} with gauges for the mailbox.
+		 * @param info the cached Mailpit info
+		 * @return the meter binder
+		 */
+		@Bean
+		@ConditionalOnMissingBean(MailpitMeterBinder.class)
+		MailpitMeterBinder mailpitMeterBinder(CachedMailpitInfo info) {
+			return new MailpitMeterBinder(info);
+		}
+
+	}
+
+	/**
+	 * Registers a health indicator for Mailpit.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(HealthIndicator.class)
+	static class MailpitHealthConfiguration {
+
+		/**
+		 * Nested so that the condition class from Spring Boot Health is only loaded when
+		 * it is on the classpath.
+		 */
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnEnabledHealthIndicator("mailpit")
+		static class MailpitHealthIndicatorConfiguration {
+
+			/**
+			 * Creates a {@link MailpitHealthIndicator}.
+			 * @param info the cached Mailpit info
+			 * @return the health indicator
+			 */
+			@Bean
+			@ConditionalOnMissingBean(name = "mailpitHealthIndicator")
+			MailpitHealthIndicator mailpitHealthIndicator(CachedMailpitInfo info) {
+				return new MailpitHealthIndicator(info);
+			}
+
+		}
+
+	}
+
 }
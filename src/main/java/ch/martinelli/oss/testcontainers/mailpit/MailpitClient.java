@@ -1,14 +1,23 @@
 package ch.martinelli.oss.testcontainers.mailpit;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Client for interacting with the Mailpit REST API.
@@ -24,40 +33,133 @@ public class MailpitClient {
 
 	private static final String PATH = "/api/v1/messages";
 
+	private static final String TAGS_PATH = "/api/v1/tags";
+
+	private static final String SEARCH_PATH = "/api/v1/search";
+
+	private static final String CHAOS_PATH = "/api/v1/chaos";
+
+	private static final String SEND_PATH = "/api/v1/send";
+
+	private static final String INFO_PATH = "/api/v1/info";
+
+	private static final Duration DEFAULT_PUBLISHER_POLL_INTERVAL = Duration.ofMillis(500);
+
+	private static final int DEFAULT_PUBLISHER_BUFFER_CAPACITY = 256;
+
+	private static final int DEFAULT_SEND_CONCURRENCY = 8;
+
 	private final String baseUrl;
 
 	private final HttpClient httpClient;
 
 	private final ObjectMapper objectMapper;
 
+	private final Duration requestTimeout;
+
+	private MailpitClientObserver observer = MailpitClientObserver.NOOP;
+
 	public MailpitClient(String baseUrl) {
+		this(baseUrl, HttpClient.newHttpClient(), null);
+	}
+
+	/**
+	 * Creates a client with timeouts, so that a stalled Mailpit fails requests instead of
+	 * blocking them indefinitely.
+	 * @param baseUrl the Mailpit base URL
+	 * @param connectTimeout the maximum time to establish a connection, or {@code null}
+	 * for no timeout
+	 * @param requestTimeout the maximum time to wait for a response, or {@code null} for
+	 * no timeout
+	 */
+	public MailpitClient(String baseUrl, Duration connectTimeout, Duration requestTimeout) {
+		this(baseUrl, newHttpClient(connectTimeout), requestTimeout);
+	}
+
+	/**
+	 * Creates a client sharing the HTTP connections of another client.
+	 */
+	MailpitClient(String baseUrl, HttpClient httpClient, Duration requestTimeout) {
 		this.baseUrl = baseUrl;
-		this.httpClient = HttpClient.newHttpClient();
+		this.httpClient = httpClient;
+		this.requestTimeout = requestTimeout;
 		this.objectMapper = new ObjectMapper();
 		this.objectMapper.registerModule(new JavaTimeModule());
 	}
 
+	private static HttpClient newHttpClient(Duration connectTimeout) {
+		HttpClient.Builder builder = HttpClient.newBuilder();
+		if (connectTimeout != null) {
+			builder.connectTimeout(connectTimeout);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Reports the duration and response size of every request, and the duration of waits
+	 * for messages, to the given observer. Configure the observer before the client is
+	 * used; namespaced clients created afterwards report to the same observer.
+	 * @param observer the observer
+	 * @return this client
+	 */
+	public MailpitClient withObserver(MailpitClientObserver observer) {
+		this.observer = observer;
+		return this;
+	}
+
+	/**
+	 * Returns the observer that receives timing information.
+	 * @return the observer, {@link MailpitClientObserver#NOOP} if none is configured
+	 */
+	public MailpitClientObserver getObserver() {
+		return observer;
+	}
+
+	/**
+	 * Returns the maximum time to wait for a response.
+	 * @return the request timeout, or {@code null} if there is none
+	 */
+	public Duration getRequestTimeout() {
+		return requestTimeout;
+	}
+
 	/**
 	 * Retrieves all messages from Mailpit.
 	 * @return a list of all caught messages
 	 * @throws MailpitException if an error occurs while fetching messages
 	 */
 	public List<Message> getAllMessages() {
+		return fetchMessages(URI.create(baseUrl + PATH));
+	}
+
+	/**
+	 * Retrieves a page of messages from Mailpit, newest first.
+	 * @param start the zero-based offset of the first message to return
+	 * @param limit the maximum number of messages to return
+	 * @return the messages of the requested page, empty if the page is beyond the end of
+	 * the mailbox
+	 * @throws MailpitException if an error occurs while fetching messages
+	 */
+	public List<Message> getMessages(int start, int limit) {
+		return fetchMessages(URI.create(baseUrl + PATH + "?start=" + start + "&limit=" + limit));
+	}
+
+	private List<Message> fetchMessages(URI uri) {
+		MessagesResponse messagesResponse = fetchMessagesResponse(uri);
+		return messagesResponse.messages() != null ? messagesResponse.messages() : List.of();
+	}
+
+	private MessagesResponse fetchMessagesResponse(URI uri) {
 		try {
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create(baseUrl + PATH))
-				.header("Accept", APPLICATION_JSON)
-				.GET()
-				.build();
+			HttpRequest request = newRequest(uri).header("Accept", APPLICATION_JSON).GET().build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, uri.getPath());
 
 			if (response.statusCode() != 200) {
 				throw new MailpitException("Failed to fetch messages: HTTP " + response.statusCode());
 			}
 
-			MessagesResponse messagesResponse = objectMapper.readValue(response.body(), MessagesResponse.class);
-			return messagesResponse.messages() != null ? messagesResponse.messages() : List.of();
+			return objectMapper.readValue(response.body(), MessagesResponse.class);
 		}
 		catch (IOException | InterruptedException e) {
 			throw new MailpitException("Failed to fetch messages", e);
@@ -65,12 +167,85 @@ public class MailpitClient {
 	}
 
 	/**
-	 * Returns the number of messages in Mailpit.
+	 * Searches messages using the Mailpit search syntax, for example
+	 * {@code tag:newsletter} or {@code subject:"Welcome"}.
+	 * @param query the search query
+	 * @return the matching messages, newest first
+	 * @throws MailpitException if an error occurs
+	 * @see <a href="https://mailpit.axllent.org/docs/usage/search-filters/">Mailpit
+	 * Search Filters</a>
+	 */
+	public List<Message> searchMessages(String query) {
+		return fetchMessages(searchUri(query, ""));
+	}
+
+	/**
+	 * Retrieves a page of the messages matching a search query, newest first.
+	 * @param query the search query
+	 * @param start the zero-based offset of the first message to return
+	 * @param limit the maximum number of messages to return
+	 * @return the matching messages of the requested page
+	 * @throws MailpitException if an error occurs
+	 */
+	public List<Message> searchMessages(String query, int start, int limit) {
+		return fetchMessages(searchUri(query, "&start=" + start + "&limit=" + limit));
+	}
+
+	/**
+	 * Returns the number of messages matching a search query.
+	 * @param query the search query
+	 * @return the number of matching messages
+	 * @throws MailpitException if an error occurs
+	 */
+	public int countMessages(String query) {
+		return fetchMessagesResponse(searchUri(query, "&limit=1")).messagesCount();
+	}
+
+	/**
+	 * Deletes all messages matching a search query.
+	 * @param query the search query
+	 * @throws MailpitException if an error occurs
+	 */
+	public void deleteMessagesMatching(String query) {
+		try {
+			HttpRequest request = newRequest(searchUri(query, "")).DELETE().build();
+
+			HttpResponse<String> response = send(request, SEARCH_PATH);
+
+			if (response.statusCode() != 200 && response.statusCode() != 204) {
+				throw new MailpitException("Failed to delete messages: HTTP " + response.statusCode());
+			}
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Failed to delete messages", e);
+		}
+	}
+
+	private URI searchUri(String query, String parameters) {
+		return URI
+			.create(baseUrl + SEARCH_PATH + "?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + parameters);
+	}
+
+	/**
+	 * Returns a client whose view of the mailbox is limited to the given namespace.
+	 * @param namespace the namespace name
+	 * @return a new NamespacedMailpitClient
+	 * @see NamespacedMailpitClient
+	 */
+	public NamespacedMailpitClient namespace(String namespace) {
+		NamespacedMailpitClient client = new NamespacedMailpitClient(baseUrl, namespace, httpClient, requestTimeout);
+		client.withObserver(observer);
+		return client;
+	}
+
+	/**
+	 * Returns the number of messages in Mailpit. Unlike {@link #getAllMessages()}, the
+	 * count is not limited to the first page of messages.
 	 * @return the message count
 	 * @throws MailpitException if an error occurs
 	 */
 	public int getMessageCount() {
-		return getAllMessages().size();
+		return fetchMessagesResponse(URI.create(baseUrl + PATH + "?limit=1")).messagesCount();
 	}
 
 	/**
@@ -81,13 +256,12 @@ public class MailpitClient {
 	 */
 	public Message getMessage(String id) {
 		try {
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create(baseUrl + "/api/v1/message/" + id))
+			HttpRequest request = newRequest(URI.create(baseUrl + "/api/v1/message/" + id))
 				.header("Accept", APPLICATION_JSON)
 				.GET()
 				.build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, "/api/v1/message/{id}");
 
 			if (response.statusCode() == 404) {
 				throw new MailpitException("Message not found: " + id);
@@ -131,12 +305,9 @@ public class MailpitClient {
 	 */
 	public String getMessageSource(String id) {
 		try {
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create(baseUrl + "/api/v1/message/" + id + "/raw"))
-				.GET()
-				.build();
+			HttpRequest request = newRequest(URI.create(baseUrl + "/api/v1/message/" + id + "/raw")).GET().build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, "/api/v1/message/{id}/raw");
 
 			if (response.statusCode() == 404) {
 				return null;
@@ -154,12 +325,9 @@ public class MailpitClient {
 
 	private String fetchViewPart(String id, String part) {
 		try {
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create(baseUrl + "/view/" + id + "." + part))
-				.GET()
-				.build();
+			HttpRequest request = newRequest(URI.create(baseUrl + "/view/" + id + "." + part)).GET().build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, "/view/{id}." + part);
 
 			if (response.statusCode() == 404) {
 				return null;
@@ -181,9 +349,9 @@ public class MailpitClient {
 	 */
 	public void deleteAllMessages() {
 		try {
-			HttpRequest request = HttpRequest.newBuilder().uri(URI.create(baseUrl + PATH)).DELETE().build();
+			HttpRequest request = newRequest(URI.create(baseUrl + PATH)).DELETE().build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, PATH);
 
 			if (response.statusCode() != 200 && response.statusCode() != 204) {
 				throw new MailpitException("Failed to delete messages: HTTP " + response.statusCode());
@@ -203,13 +371,11 @@ public class MailpitClient {
 		try {
 			String jsonBody = objectMapper.writeValueAsString(new DeleteRequest(ids));
 
-			HttpRequest request = HttpRequest.newBuilder()
-				.uri(URI.create(baseUrl + PATH))
-				.header("Content-Type", APPLICATION_JSON)
+			HttpRequest request = newRequest(URI.create(baseUrl + PATH)).header("Content-Type", APPLICATION_JSON)
 				.method("DELETE", HttpRequest.BodyPublishers.ofString(jsonBody))
 				.build();
 
-			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			HttpResponse<String> response = send(request, PATH);
 
 			if (response.statusCode() != 200 && response.statusCode() != 204) {
 				throw new MailpitException("Failed to delete messages: HTTP " + response.statusCode());
@@ -229,6 +395,311 @@ public class MailpitClient {
 		deleteMessages(List.of(id));
 	}
 
+	/**
+	 * Returns all tags currently known to Mailpit.
+	 * @return the tag names
+	 * @throws MailpitException if an error occurs
+	 */
+	public List<String> getTags() {
+		try {
+			HttpRequest request = newRequest(URI.create(baseUrl + TAGS_PATH)).header("Accept", APPLICATION_JSON)
+				.GET()
+				.build();
+
+			HttpResponse<String> response = send(request, TAGS_PATH);
+
+			if (response.statusCode() != 200) {
+				throw new MailpitException("Failed to fetch tags: HTTP " + response.statusCode());
+			}
+
+			List<String> tags = objectMapper.readValue(response.body(), new TypeReference<>() {
+			});
+			return tags != null ? tags : List.of();
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Failed to fetch tags", e);
+		}
+	}
+
+	/**
+	 * Deletes a tag. Messages carrying the tag are not deleted.
+	 * @param tag the tag name
+	 * @throws MailpitException if an error occurs
+	 */
+	public void deleteTag(String tag) {
+		try {
+			String encodedTag = URLEncoder.encode(tag, StandardCharsets.UTF_8).replace("+", "%20");
+			HttpRequest request = newRequest(URI.create(baseUrl + TAGS_PATH + "/" + encodedTag)).DELETE().build();
+
+			HttpResponse<String> response = send(request, TAGS_PATH + "/{tag}");
+
+			if (response.statusCode() != 200 && response.statusCode() != 204) {
+				throw new MailpitException("Failed to delete tag " + tag + ": HTTP " + response.statusCode());
+			}
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Failed to delete tag " + tag, e);
+		}
+	}
+
+	/**
+	 * Returns information about the Mailpit instance, such as its version, message counts
+	 * and database size.
+	 * @return the Mailpit info
+	 * @throws MailpitException if an error occurs
+	 */
+	public MailpitInfo getInfo() {
+		try {
+			HttpRequest request = newRequest(URI.create(baseUrl + INFO_PATH)).header("Accept", APPLICATION_JSON)
+				.GET()
+				.build();
+
+			HttpResponse<String> response = send(request, INFO_PATH);
+
+			if (response.statusCode() != 200) {
+				throw new MailpitException("Failed to fetch info: HTTP " + response.statusCode());
+			}
+
+			return objectMapper.readValue(response.body(), MailpitInfo.class);
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Failed to fetch info", e);
+		}
+	}
+
+	/**
+	 * Returns the current chaos triggers.
+	 * @return the chaos triggers
+	 * @throws MailpitException if chaos is not enabled or an error occurs
+	 */
+	public ChaosTriggers getChaosTriggers() {
+		HttpRequest request = newRequest(URI.create(baseUrl + CHAOS_PATH)).header("Accept", APPLICATION_JSON)
+			.GET()
+			.build();
+		return sendChaosRequest(request);
+	}
+
+	/**
+	 * Replaces the chaos triggers at runtime. Triggers that are null are disabled.
+	 * @param triggers the new chaos triggers
+	 * @return the chaos triggers now in effect
+	 * @throws MailpitException if chaos is not enabled or an error occurs
+	 */
+	public ChaosTriggers setChaosTriggers(ChaosTriggers triggers) {
+		try {
+			HttpRequest request = newRequest(URI.create(baseUrl + CHAOS_PATH)).header("Content-Type", APPLICATION_JSON)
+				.header("Accept", APPLICATION_JSON)
+				.PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(triggers)))
+				.build();
+			return sendChaosRequest(request);
+		}
+		catch (IOException e) {
+			throw new MailpitException("Failed to set chaos triggers", e);
+		}
+	}
+
+	private ChaosTriggers sendChaosRequest(HttpRequest request) {
+		try {
+			HttpResponse<String> response = send(request, CHAOS_PATH);
+
+			if (response.statusCode() != 200) {
+				throw new MailpitException(
+						"Chaos request failed: HTTP " + response.statusCode() + " " + response.body().trim());
+			}
+
+			return objectMapper.readValue(response.body(), ChaosTriggers.class);
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Chaos request failed", e);
+		}
+	}
+
+	/**
+	 * Injects a message through the Mailpit send API, without using SMTP.
+	 * @param sendRequest the message to send
+	 * @return the ID of the created message
+	 * @throws MailpitException if an error occurs
+	 */
+	public String sendMessage(SendRequest sendRequest) {
+		try {
+			HttpResponse<String> response = send(sendHttpRequest(sendRequest), SEND_PATH);
+			return parseSendResponse(response);
+		}
+		catch (IOException | InterruptedException e) {
+			throw new MailpitException("Failed to send message", e);
+		}
+	}
+
+	/**
+	 * Injects many messages through the Mailpit send API, submitting up to eight requests
+	 * concurrently.
+	 * @param sendRequests the messages to send
+	 * @return the IDs of the created messages, in the order of the requests
+	 * @throws MailpitException if an error occurs
+	 */
+	public List<String> sendMessages(List<SendRequest> sendRequests) {
+		return sendMessages(sendRequests, DEFAULT_SEND_CONCURRENCY);
+	}
+
+	/**
+	 * Injects many messages through the Mailpit send API, submitting the given number of
+	 * requests concurrently over the client's pooled HTTP connections.
+	 * @param sendRequests the messages to send
+	 * @param concurrency the maximum number of requests in flight
+	 * @return the IDs of the created messages, in the order of the requests
+	 * @throws MailpitException if an error occurs; no further requests are submitted
+	 * after the first failure, and requests still in flight are cancelled
+	 */
+	public List<String> sendMessages(List<SendRequest> sendRequests, int concurrency) {
+		Semaphore permits = new Semaphore(concurrency);
+		AtomicBoolean failed = new AtomicBoolean();
+		List<CompletableFuture<HttpResponse<String>>> requests = new ArrayList<>();
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		try {
+			for (SendRequest sendRequest : sendRequests) {
+				HttpRequest request = sendHttpRequest(sendRequest);
+				permits.acquire();
+				if (failed.get()) {
+					// Stop submitting; the failure is reported by join below
+					break;
+				}
+				long startNanos = System.nanoTime();
+				CompletableFuture<HttpResponse<String>> response = httpClient.sendAsync(request,
+						HttpResponse.BodyHandlers.ofString());
+				requests.add(response);
+				futures.add(response.whenComplete((r, e) -> observe(request, SEND_PATH, startNanos, r))
+					.thenApply(this::parseSendResponse)
+					.whenComplete((id, e) -> {
+						if (e != null) {
+							failed.set(true);
+						}
+						permits.release();
+					}));
+			}
+			return futures.stream().map(CompletableFuture::join).toList();
+		}
+		catch (IOException | InterruptedException e) {
+			requests.forEach(request -> request.cancel(true));
+			throw new MailpitException("Failed to send messages", e);
+		}
+		catch (CompletionException e) {
+			requests.forEach(request -> request.cancel(true));
+			if (e.getCause() instanceof MailpitException mailpitException) {
+				throw mailpitException;
+			}
+			throw new MailpitException("Failed to send messages", e.getCause());
+		}
+	}
+
+	private HttpRequest sendHttpRequest(SendRequest sendRequest) throws IOException {
+		String jsonBody = objectMapper.writeValueAsString(prepare(sendRequest));
+		return newRequest(URI.create(baseUrl + SEND_PATH)).header("Content-Type", APPLICATION_JSON)
+			.header("Accept", APPLICATION_JSON)
+			.POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+			.build();
+	}
+
+	private HttpResponse<String> send(HttpRequest request, String endpoint) throws IOException, InterruptedException {
+		long startNanos = System.nanoTime();
+		HttpResponse<String> response = null;
+		try {
+			response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			return response;
+		}
+		finally {
+			observe(request, endpoint, startNanos, response);
+		}
+	}
+
+	private void observe(HttpRequest request, String endpoint, long startNanos, HttpResponse<String> response) {
+		if (observer == MailpitClientObserver.NOOP) {
+			return;
+		}
+		Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+		int status = response != null ? response.statusCode() : 0;
+		long responseBytes = response != null ? utf8Length(response.body()) : 0;
+		observer.requestCompleted(endpoint, request.method(), status, duration, responseBytes);
+	}
+
+	private static long utf8Length(String body) {
+		long length = 0;
+		for (int i = 0; i < body.length(); i++) {
+			char c = body.charAt(i);
+			if (c < 0x80) {
+				length++;
+			}
+			else if (c < 0x800) {
+				length += 2;
+			}
+			else if (Character.isHighSurrogate(c)) {
+				// A surrogate pair is one four-byte code point
+				length += 4;
+				i++;
+			}
+			else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private HttpRequest.Builder newRequest(URI uri) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder().uri(uri);
+		if (requestTimeout != null) {
+			builder.timeout(requestTimeout);
+		}
+		return builder;
+	}
+
+	/**
+	 * Adjusts a message before it is sent. Returns the request unchanged.
+	 */
+	SendRequest prepare(SendRequest sendRequest) {
+		return sendRequest;
+	}
+
+	private String parseSendResponse(HttpResponse<String> response) {
+		if (response.statusCode() != 200) {
+			throw new MailpitException("Failed to send message: HTTP " + response.statusCode() + " " + response.body());
+		}
+		try {
+			return objectMapper.readValue(response.body(), SendResponse.class).id();
+		}
+		catch (IOException e) {
+			throw new MailpitException("Failed to parse send response", e);
+		}
+	}
+
+	/**
+	 * Creates a publisher of newly arriving messages that blocks polling while a
+	 * subscriber's buffer is full.
+	 * @return a new MessagePublisher, which must be closed when no longer needed
+	 * @throws MailpitException if the current mailbox state cannot be read
+	 * @see MessagePublisher
+	 */
+	public MessagePublisher messagePublisher() {
+		return messagePublisher(DEFAULT_PUBLISHER_POLL_INTERVAL, DEFAULT_PUBLISHER_BUFFER_CAPACITY,
+				MessagePublisher.OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a publisher of newly arriving messages.
+	 * @param pollInterval the interval between polls
+	 * @param bufferCapacity the maximum number of buffered messages per subscriber
+	 * @param overflowPolicy the strategy when a subscriber's buffer is full
+	 * @return a new MessagePublisher, which must be closed when no longer needed
+	 * @throws MailpitException if the current mailbox state cannot be read
+	 * @see MessagePublisher
+	 */
+	public MessagePublisher messagePublisher(Duration pollInterval, int bufferCapacity,
+			MessagePublisher.OverflowPolicy overflowPolicy) {
+		return new MessagePublisher(this, pollInterval, bufferCapacity, overflowPolicy);
+	}
+
+	@com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
+	private record SendResponse(@com.fasterxml.jackson.annotation.JsonProperty("ID") String id) {
+	}
+
 	private record DeleteRequest(@com.fasterxml.jackson.annotation.JsonProperty("ids") List<String> ids) {
 	}
 
@@ -0,0 +1,43 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.time.Duration;
+
+/**
+ * Receives timing information from a {@link MailpitClient}, for example to record
+ * metrics.
+ * <p>
+ * Callbacks are invoked on the thread that completed the request or the wait and must not
+ * block.
+ *
+ * @see MailpitClient#withObserver(MailpitClientObserver)
+ * @see MicrometerMailpitClientObserver
+ */
+public interface MailpitClientObserver {
+
+	/**
+	 * An observer that ignores all callbacks.
+	 */
+	MailpitClientObserver NOOP = new MailpitClientObserver() {
+	};
+
+	/**
+	 * Called when a request to the Mailpit API has completed or failed.
+	 * @param endpoint the endpoint as path template, e.g. {@code /api/v1/message/{id}}
+	 * @param method the HTTP method
+	 * @param status the HTTP status code, or {@code 0} if no response was received
+	 * @param duration the time from sending the request to receiving the whole response
+	 * @param responseBytes the size of the response body in bytes
+	 */
+	default void requestCompleted(String endpoint, String method, int status, Duration duration, long responseBytes) {
+	}
+
+	/**
+	 * Called when a wait for messages, such as an AssertJ {@code awaitMessage()}, has
+	 * ended.
+	 * @param found whether the expected messages were found
+	 * @param duration the time spent waiting
+	 */
+	default void awaitCompleted(boolean found, Duration duration) {
+	}
+
+}
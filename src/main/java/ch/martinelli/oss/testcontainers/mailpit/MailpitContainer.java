@@ -1,8 +1,19 @@
 package ch.martinelli.oss.testcontainers.mailpit;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.wait.strategy.WaitAllStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
 import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Testcontainers implementation for Mailpit.
@@ -15,6 +26,23 @@ import org.testcontainers.utility.DockerImageName;
  * <li>1025 - SMTP port for sending emails</li>
  * <li>8025 - HTTP port for the web interface and REST API</li>
  * </ul>
+ * <p>
+ * To start Mailpit only once for a whole test suite, enable
+ * {@linkplain #withReuse(boolean) reuse} (which also requires
+ * {@code testcontainers.reuse.enable=true} in {@code ~/.testcontainers.properties}) and
+ * call {@link #reset()} between test classes instead of restarting the container. A
+ * reused container is reset automatically when it is picked up again.
+ * <p>
+ * By default, the container is considered ready when the web interface responds. Use
+ * {@link #withReadinessCheck(ReadinessCheck)} to select a different check and
+ * {@link #getStartupTimings()} to compare how long each phase of the startup took.
+ * <p>
+ * For heavy ingestion, {@link #withTmpfsDatabase()} keeps the database in memory instead
+ * of on the container's overlay filesystem, and {@link #withMaxMessages(int)} controls
+ * how many messages Mailpit keeps before pruning the oldest.
+ * <p>
+ * Large fixture mailboxes can be {@linkplain #exportDatabase(Path) exported} once and
+ * {@linkplain #withDatabaseSnapshot(Path) restored} into new containers.
  *
  * @see <a href="https://hub.docker.com/r/axllent/mailpit">Mailpit Docker Image</a>
  * @see <a href="https://mailpit.axllent.org/">Mailpit Documentation</a>
@@ -25,10 +53,85 @@ public class MailpitContainer extends GenericContainer<MailpitContainer> {
 
 	private static final String DEFAULT_TAG = "latest";
 
+	private static final String TMPFS_PATH = "/data";
+
+	private static final String DATABASE_ENV = "MP_DATABASE";
+
+	private static final String SNAPSHOT_DATABASE_PATH = "/tmp/mailpit.db";
+
+	private static final String WAL_SUFFIX = "-wal";
+
+	private static final String MAX_MESSAGES_ENV = "MP_MAX_MESSAGES";
+
 	public static final int SMTP_PORT = 1025;
 
 	public static final int HTTP_PORT = 8025;
 
+	/**
+	 * Label added to every Mailpit container, for example to find reused containers with
+	 * {@code docker ps --filter label=ch.martinelli.oss.testcontainers.mailpit}.
+	 */
+	public static final String LABEL = "ch.martinelli.oss.testcontainers.mailpit";
+
+	/**
+	 * How to decide that Mailpit is ready to use.
+	 */
+	public enum ReadinessCheck {
+
+		/**
+		 * The web interface at {@code /} responds. This loads the HTML of the UI and does
+		 * not check SMTP.
+		 */
+		WEB_UI,
+
+		/**
+		 * The lightweight {@code /readyz} API endpoint responds.
+		 */
+		API,
+
+		/**
+		 * Mailpit logs that its HTTP server is accessible. Requires no network round trip
+		 * but relies on the log format.
+		 */
+		LOG_MESSAGE,
+
+		/**
+		 * The {@code /readyz} API endpoint responds and the SMTP server sends its banner.
+		 */
+		API_AND_SMTP
+
+	}
+
+	/**
+	 * Durations of the phases of the last container startup.
+	 *
+	 * @param create the time to resolve the image and create the container, or to find
+	 * the container when it is reused
+	 * @param start the time to start the container
+	 * @param ready the time until the readiness check passed
+	 */
+	public record StartupTimings(Duration create, Duration start, Duration ready) {
+
+		/**
+		 * Returns the total startup time.
+		 * @return the sum of all phases
+		 */
+		public Duration total() {
+			return create.plus(start).plus(ready);
+		}
+
+	}
+
+	private long startRequestedNanos;
+
+	private long createdNanos;
+
+	private long startingNanos;
+
+	private StartupTimings startupTimings;
+
+	private Path databaseSnapshot;
+
 	public MailpitContainer() {
 		this(DEFAULT_IMAGE_NAME.withTag(DEFAULT_TAG));
 	}
@@ -42,7 +145,237 @@ public class MailpitContainer extends GenericContainer<MailpitContainer> {
 		dockerImageName.assertCompatibleWith(DEFAULT_IMAGE_NAME);
 
 		withExposedPorts(SMTP_PORT, HTTP_PORT);
-		waitingFor(Wait.forHttp("/").forPort(HTTP_PORT));
+		withReadinessCheck(ReadinessCheck.WEB_UI);
+		withLabel(LABEL, "true");
+	}
+
+	/**
+	 * Stores the Mailpit database on a tmpfs mount, which avoids disk writes to the
+	 * container's overlay filesystem when ingesting many messages. The database is lost
+	 * when the container stops.
+	 * @return this container
+	 */
+	public MailpitContainer withTmpfsDatabase() {
+		if (databaseSnapshot != null) {
+			throw new IllegalStateException("A database snapshot cannot be restored to tmpfs");
+		}
+		withTmpFs(Map.of(TMPFS_PATH, "rw"));
+		return withEnv(DATABASE_ENV, TMPFS_PATH + "/mailpit.db");
+	}
+
+	/**
+	 * Starts the container with a mailbox restored from a database snapshot created by
+	 * {@link #exportDatabase(Path)}. The snapshot is copied into the container before
+	 * Mailpit starts, which is much faster than sending thousands of fixture messages.
+	 * Cannot be combined with {@link #withTmpfsDatabase()}.
+	 * <p>
+	 * Unless {@link #withMaxMessages(int)} has been called, the message limit is removed,
+	 * because Mailpit would otherwise prune a restored mailbox to its default of 500
+	 * messages. Export snapshots with more than 500 messages from a container without a
+	 * limit as well.
+	 * <p>
+	 * Unless {@code MP_DATABASE} is configured, the database is placed at
+	 * {@code /tmp/mailpit.db}, because the snapshot must be copied to a known location.
+	 * @param snapshot the snapshot database file; a write-ahead log next to it (the same
+	 * file name with the suffix {@code -wal}) is restored as well
+	 * @return this container
+	 */
+	public MailpitContainer withDatabaseSnapshot(Path snapshot) {
+		if (!Files.isRegularFile(snapshot)) {
+			throw new IllegalArgumentException("Database snapshot not found: " + snapshot);
+		}
+		String databasePath = getEnvMap().getOrDefault(DATABASE_ENV, SNAPSHOT_DATABASE_PATH);
+		if (isOnTmpfs(databasePath)) {
+			throw new IllegalStateException("A database snapshot cannot be restored to tmpfs: " + databasePath);
+		}
+		this.databaseSnapshot = snapshot;
+		withEnv(DATABASE_ENV, databasePath);
+		if (!getEnvMap().containsKey(MAX_MESSAGES_ENV)) {
+			withMaxMessages(0);
+		}
+		return this;
+	}
+
+	/**
+	 * Exports the Mailpit database of the running container to a file, which can be used
+	 * with {@link #withDatabaseSnapshot(Path)}. The write-ahead log, if any, is exported
+	 * to the same file name with the suffix {@code -wal}. Export while no messages are
+	 * being received to get a consistent snapshot.
+	 * <p>
+	 * The database location is read from {@link MailpitClient#getInfo()}, so it works
+	 * with Mailpit's default location as well as a configured {@code MP_DATABASE}.
+	 * @param target the file to write the snapshot to
+	 * @throws MailpitException if the database is on tmpfs or could not be copied
+	 */
+	public void exportDatabase(Path target) {
+		String databasePath = getClient().getInfo().database();
+		if (databasePath == null || databasePath.isEmpty()) {
+			throw new MailpitException("Mailpit did not report its database location");
+		}
+		if (isOnTmpfs(databasePath)) {
+			throw new MailpitException("A database on tmpfs cannot be exported: " + databasePath);
+		}
+		Path wal = Path.of(target + WAL_SUFFIX);
+		try {
+			copyFileFromContainer(databasePath, target.toString());
+			Files.deleteIfExists(wal);
+			if (execInContainer("test", "-f", databasePath + WAL_SUFFIX).getExitCode() == 0) {
+				copyFileFromContainer(databasePath + WAL_SUFFIX, wal.toString());
+			}
+		}
+		catch (IOException e) {
+			throw new MailpitException("Failed to export database " + databasePath, e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailpitException("Interrupted while exporting database " + databasePath, e);
+		}
+	}
+
+	@Override
+	protected void configure() {
+		super.configure();
+		if (databaseSnapshot != null) {
+			String databasePath = getEnvMap().getOrDefault(DATABASE_ENV, SNAPSHOT_DATABASE_PATH);
+			if (isOnTmpfs(databasePath)) {
+				throw new IllegalStateException("A database snapshot cannot be restored to tmpfs: " + databasePath);
+			}
+			withCopyFileToContainer(MountableFile.forHostPath(databaseSnapshot, 0666), databasePath);
+			Path wal = Path.of(databaseSnapshot + WAL_SUFFIX);
+			if (Files.isRegularFile(wal)) {
+				withCopyFileToContainer(MountableFile.forHostPath(wal, 0666), databasePath + WAL_SUFFIX);
+			}
+		}
+	}
+
+	private boolean isOnTmpfs(String path) {
+		Map<String, String> tmpFsMapping = getTmpFsMapping();
+		return tmpFsMapping != null && tmpFsMapping.keySet()
+			.stream()
+			.anyMatch(mount -> path.equals(mount) || path.startsWith(mount.endsWith("/") ? mount : mount + "/"));
+	}
+
+	/**
+	 * Enables Mailpit's chaos feature, which lets the SMTP server randomly reject
+	 * transactions. Triggers are configured at runtime with
+	 * {@link MailpitClient#setChaosTriggers(ChaosTriggers)}.
+	 * @return this container
+	 */
+	public MailpitContainer withChaosEnabled() {
+		return withEnv("MP_ENABLE_CHAOS", "true");
+	}
+
+	/**
+	 * Enables Mailpit's chaos feature with the given triggers active from the start.
+	 * @param triggers the chaos triggers
+	 * @return this container
+	 */
+	public MailpitContainer withChaosTriggers(ChaosTriggers triggers) {
+		withChaosEnabled();
+		return withEnv("MP_CHAOS_TRIGGERS", triggers.toSetting());
+	}
+
+	/**
+	 * Configures the maximum number of messages Mailpit keeps. Older messages are deleted
+	 * when the limit is exceeded. Mailpit's default is 500.
+	 * @param maxMessages the maximum number of messages, or 0 for no limit
+	 * @return this container
+	 */
+	public MailpitContainer withMaxMessages(int maxMessages) {
+		return withEnv(MAX_MESSAGES_ENV, String.valueOf(maxMessages));
+	}
+
+	/**
+	 * Disables the check for new Mailpit releases, which otherwise contacts GitHub.
+	 * @return this container
+	 */
+	public MailpitContainer withVersionCheckDisabled() {
+		return withEnv("MP_DISABLE_VERSION_CHECK", "true");
+	}
+
+	/**
+	 * Disables the reverse DNS lookup of the client address for every SMTP connection.
+	 * @return this container
+	 */
+	public MailpitContainer withReverseDnsDisabled() {
+		return withEnv("MP_SMTP_DISABLE_RDNS", "true");
+	}
+
+	/**
+	 * Configures how strongly Mailpit compresses stored messages, trading disk space for
+	 * CPU time.
+	 * @param level the compression level from 0 (none) to 3 (best), Mailpit's default is
+	 * 1
+	 * @return this container
+	 */
+	public MailpitContainer withCompression(int level) {
+		if (level < 0 || level > 3) {
+			throw new IllegalArgumentException("Compression level must be between 0 and 3 but was " + level);
+		}
+		return withEnv("MP_COMPRESSION", String.valueOf(level));
+	}
+
+	/**
+	 * Selects how to decide that Mailpit is ready to use. Must be called before the
+	 * container is started.
+	 * @param readinessCheck the readiness check
+	 * @return this container
+	 */
+	public MailpitContainer withReadinessCheck(ReadinessCheck readinessCheck) {
+		return waitingFor(waitStrategy(readinessCheck));
+	}
+
+	/**
+	 * Returns the durations of the phases of the last startup.
+	 * @return the startup timings, or null if the container has not been started
+	 */
+	public StartupTimings getStartupTimings() {
+		return startupTimings;
+	}
+
+	private static WaitStrategy waitStrategy(ReadinessCheck readinessCheck) {
+		return switch (readinessCheck) {
+			case WEB_UI -> Wait.forHttp("/").forPort(HTTP_PORT);
+			case API -> Wait.forHttp("/readyz").forPort(HTTP_PORT);
+			case LOG_MESSAGE -> Wait.forLogMessage(".*\\[http\\] accessible via.*\\n", 1);
+			case API_AND_SMTP -> new WaitAllStrategy().withStrategy(Wait.forHttp("/readyz").forPort(HTTP_PORT))
+				.withStrategy(new SmtpBannerWaitStrategy(SMTP_PORT));
+		};
+	}
+
+	@Override
+	protected void doStart() {
+		startRequestedNanos = System.nanoTime();
+		createdNanos = 0;
+		super.doStart();
+	}
+
+	@Override
+	protected void containerIsCreated(String containerId) {
+		super.containerIsCreated(containerId);
+		createdNanos = System.nanoTime();
+	}
+
+	@Override
+	protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+		super.containerIsStarting(containerInfo, reused);
+		startingNanos = System.nanoTime();
+	}
+
+	@Override
+	protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
+		super.containerIsStarted(containerInfo, reused);
+		long startedNanos = System.nanoTime();
+		// A reused container is not created, so its creation phase ends when it starts
+		long created = createdNanos != 0 ? createdNanos : startingNanos;
+		startupTimings = new StartupTimings(Duration.ofNanos(created - startRequestedNanos),
+				Duration.ofNanos(startingNanos - created), Duration.ofNanos(startedNanos - startingNanos));
+		logger().info("Mailpit started in {} ms (create {} ms, start {} ms, ready {} ms)",
+				startupTimings.total().toMillis(), startupTimings.create().toMillis(),
+				startupTimings.start().toMillis(), startupTimings.ready().toMillis());
+		if (reused) {
+			reset();
+		}
 	}
 
 	/**
@@ -85,4 +418,24 @@ public class MailpitContainer extends GenericContainer<MailpitContainer> {
 		return new MailpitClient(getHttpUrl());
 	}
 
+	/**
+	 * Clears the mailbox through the API: deletes all messages and tags and verifies that
+	 * the mailbox is empty afterwards. Much faster than restarting the container.
+	 * @throws MailpitException if the mailbox could not be cleared
+	 */
+	public void reset() {
+		MailpitClient client = getClient();
+		client.deleteAllMessages();
+		for (String tag : client.getTags()) {
+			client.deleteTag(tag);
+		}
+		if (!client.getMessages(0, 1).isEmpty()) {
+			throw new MailpitException("Mailbox is not empty after reset");
+		}
+		List<String> tags = client.getTags();
+		if (!tags.isEmpty()) {
+			throw new MailpitException("Tags remain after reset: " + tags);
+		}
+	}
+
 }
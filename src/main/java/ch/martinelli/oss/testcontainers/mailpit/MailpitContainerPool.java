@@ -0,0 +1,414 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A pool of running {@link MailpitContainer}s that gives each test an isolated mailbox
+ * without paying the container startup per test.
+ * <p>
+ * {@link #start()} starts the minimum number of containers in parallel. Each
+ * {@link #lease()} hands out an idle container, starting a new one if none is idle and
+ * the pool is below its maximum size, or waits for a container to be returned otherwise.
+ * Returned containers are {@linkplain MailpitContainer#reset() reset} before they are
+ * leased again. Containers idle for longer than the idle timeout are stopped until the
+ * pool is back at its minimum size.
+ * <p>
+ * The pool lives in one JVM; with several Surefire forks, each fork has its own pool.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * static MailpitContainerPool pool = new MailpitContainerPool(2, 4).start();
+ *
+ * &#64;Test
+ * void sendsWelcomeMail() {
+ *     try (MailpitContainerPool.Lease lease = pool.lease()) {
+ *         MailpitContainer mailpit = lease.getContainer();
+ *         // send mail and assert on mailpit.getClient()
+ *     }
+ * }
+ * </pre>
+ */
+@SuppressWarnings("java:S2142")
+public class MailpitContainerPool implements AutoCloseable {
+
+	private final Supplier<MailpitContainer> factory;
+
+	private final int minSize;
+
+	private final int maxSize;
+
+	private Duration idleTimeout = Duration.ofMinutes(1);
+
+	private Duration leaseTimeout = Duration.ofMinutes(2);
+
+	private final Lock lock = new ReentrantLock();
+
+	private final Condition returned = lock.newCondition();
+
+	private final Deque<IdleContainer> idleContainers = new ArrayDeque<>();
+
+	private int size;
+
+	private boolean closed;
+
+	private ScheduledExecutorService reaper;
+
+	/**
+	 * Creates a pool of Mailpit containers with the default image.
+	 * @param minSize the number of containers started up front and kept running
+	 * @param maxSize the maximum number of containers
+	 */
+	public MailpitContainerPool(int minSize, int maxSize) {
+		this(MailpitContainer::new, minSize, maxSize);
+	}
+
+	/**
+	 * Creates a pool of Mailpit containers.
+	 * @param factory creates a new, not yet started container
+	 * @param minSize the number of containers started up front and kept running
+	 * @param maxSize the maximum number of containers
+	 */
+	public MailpitContainerPool(Supplier<MailpitContainer> factory, int minSize, int maxSize) {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException(
+					"Invalid pool size: min " + minSize + ", max " + maxSize + " (expected 0 <= min <= max, max >= 1)");
+		}
+		this.factory = factory;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Configures how long a container above the minimum pool size may stay idle before it
+	 * is stopped.
+	 * @param idleTimeout the idle timeout
+	 * @return this pool
+	 */
+	public MailpitContainerPool withIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		return this;
+	}
+
+	/**
+	 * Configures how long {@link #lease()} waits for a container when the pool is at its
+	 * maximum size and all containers are leased.
+	 * @param leaseTimeout the lease timeout
+	 * @return this pool
+	 */
+	public MailpitContainerPool withLeaseTimeout(Duration leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+		return this;
+	}
+
+	/**
+	 * Starts the minimum number of containers in parallel.
+	 * @return this pool
+	 * @throws MailpitException if a container could not be started
+	 */
+	public MailpitContainerPool start() {
+		lock.lock();
+		try {
+			size += minSize;
+		}
+		finally {
+			lock.unlock();
+		}
+		List<MailpitContainer> started = startContainers(minSize);
+		long now = System.nanoTime();
+		lock.lock();
+		try {
+			started.forEach(container -> idleContainers.addLast(new IdleContainer(container, now)));
+		}
+		finally {
+			lock.unlock();
+		}
+		reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mailpit-pool-reaper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = Math.max(idleTimeout.toMillis() / 2, 100);
+		reaper.scheduleWithFixedDelay(this::stopExpiredContainers, interval, interval, TimeUnit.MILLISECONDS);
+		return this;
+	}
+
+	/**
+	 * Leases a running container with an empty mailbox.
+	 * @return the lease, to be closed when the test is done with the container
+	 * @throws MailpitException if no container becomes available within the lease timeout
+	 * or a new container could not be started
+	 */
+	public Lease lease() {
+		long deadline = System.nanoTime() + leaseTimeout.toNanos();
+		lock.lock();
+		try {
+			while (true) {
+				if (closed) {
+					throw new MailpitException("Mailpit container pool is closed");
+				}
+				IdleContainer idle = idleContainers.pollLast();
+				if (idle != null) {
+					return new Lease(idle.container());
+				}
+				if (size < maxSize) {
+					size++;
+					break;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new MailpitException("No Mailpit container available within " + leaseTimeout);
+				}
+				returned.awaitNanos(remaining);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailpitException("Interrupted while waiting for a Mailpit container", e);
+		}
+		finally {
+			lock.unlock();
+		}
+		return new Lease(startContainers(1).get(0));
+	}
+
+	/**
+	 * Returns the number of running or starting containers.
+	 * @return the pool size
+	 */
+	public int getSize() {
+		lock.lock();
+		try {
+			return size;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of containers that are not leased.
+	 * @return the number of idle containers
+	 */
+	public int getIdleCount() {
+		lock.lock();
+		try {
+			return idleContainers.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops all idle containers. Leased containers are stopped when they are returned.
+	 */
+	@Override
+	public void close() {
+		List<MailpitContainer> toStop = new ArrayList<>();
+		lock.lock();
+		try {
+			closed = true;
+			idleContainers.forEach(idle -> toStop.add(idle.container()));
+			idleContainers.clear();
+			size -= toStop.size();
+			returned.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+		if (reaper != null) {
+			reaper.shutdownNow();
+		}
+		toStop.forEach(MailpitContainer::stop);
+	}
+
+	/**
+	 * Starts containers in parallel. The caller must already have counted them in the
+	 * pool size; on failure, they are removed from it again and every container created
+	 * so far is stopped, including those whose start was still running.
+	 */
+	private List<MailpitContainer> startContainers(int count) {
+		if (count == 0) {
+			return List.of();
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(count, runnable -> {
+			Thread thread = new Thread(runnable, "mailpit-pool-starter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<MailpitContainer> created = Collections.synchronizedList(new ArrayList<>());
+		List<Future<MailpitContainer>> futures = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			futures.add(executor.submit(() -> {
+				MailpitContainer container = factory.get();
+				created.add(container);
+				container.start();
+				return container;
+			}));
+		}
+		executor.shutdown();
+		List<MailpitContainer> started = new ArrayList<>();
+		MailpitException failure = null;
+		for (Future<MailpitContainer> future : futures) {
+			try {
+				started.add(future.get());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failure = new MailpitException("Interrupted while starting Mailpit containers", e);
+				break;
+			}
+			catch (ExecutionException e) {
+				failure = new MailpitException("Failed to start Mailpit container", e.getCause());
+				break;
+			}
+		}
+		if (failure != null) {
+			futures.forEach(future -> future.cancel(true));
+			awaitTermination(executor);
+			created.forEach(MailpitContainer::stop);
+			shrink(count);
+			throw failure;
+		}
+		return started;
+	}
+
+	/**
+	 * Waits until the cancelled starts have finished, so that no container is created
+	 * after the cleanup. The interrupt status of the calling thread is preserved.
+	 */
+	private static void awaitTermination(ExecutorService executor) {
+		boolean interrupted = Thread.interrupted();
+		try {
+			while (!executor.isTerminated()) {
+				try {
+					executor.awaitTermination(1, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void giveBack(MailpitContainer container) {
+		try {
+			container.reset();
+		}
+		catch (RuntimeException e) {
+			// A container that cannot be reset is replaced on demand
+			container.stop();
+			shrink(1);
+			return;
+		}
+		lock.lock();
+		try {
+			if (!closed) {
+				idleContainers.addLast(new IdleContainer(container, System.nanoTime()));
+				returned.signal();
+				return;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		container.stop();
+		shrink(1);
+	}
+
+	private void shrink(int count) {
+		lock.lock();
+		try {
+			size -= count;
+			returned.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void stopExpiredContainers() {
+		List<MailpitContainer> toStop = new ArrayList<>();
+		long expiredBefore = System.nanoTime() - idleTimeout.toNanos();
+		lock.lock();
+		try {
+			// The least recently returned containers are at the head of the queue
+			while (size > minSize && !idleContainers.isEmpty()
+					&& idleContainers.peekFirst().idleSinceNanos() - expiredBefore < 0) {
+				toStop.add(idleContainers.pollFirst().container());
+				size--;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		toStop.forEach(MailpitContainer::stop);
+	}
+
+	private record IdleContainer(MailpitContainer container, long idleSinceNanos) {
+	}
+
+	/**
+	 * A container leased from the pool. Closing the lease returns the container.
+	 */
+	public final class Lease implements AutoCloseable {
+
+		private final MailpitContainer container;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Lease(MailpitContainer container) {
+			this.container = container;
+		}
+
+		/**
+		 * Returns the leased container.
+		 * @return the container
+		 */
+		public MailpitContainer getContainer() {
+			return container;
+		}
+
+		/**
+		 * Returns a client for the leased container.
+		 * @return a new MailpitClient instance
+		 */
+		public MailpitClient getClient() {
+			return container.getClient();
+		}
+
+		/**
+		 * Resets the container and returns it to the pool.
+		 */
+		@Override
+		public void close() {
+			if (released.compareAndSet(false, true)) {
+				giveBack(container);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,33 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.springframework.boot.health.contributor.AbstractHealthIndicator;
+import org.springframework.boot.health.contributor.Health;
+
+/**
+ * Health indicator that reports Mailpit as up when its info API responds, with the
+ * version, message counts and database size as details.
+ */
+public class MailpitHealthIndicator extends AbstractHealthIndicator {
+
+	private final CachedMailpitInfo info;
+
+	/**
+	 * Creates a health indicator.
+	 * @param info the cached Mailpit info
+	 */
+	public MailpitHealthIndicator(CachedMailpitInfo info) {
+		super("Mailpit health check failed");
+		this.info = info;
+	}
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) {
+		MailpitInfo mailpitInfo = info.get();
+		builder.up()
+			.withDetail("version", mailpitInfo.version())
+			.withDetail("messages", mailpitInfo.messages())
+			.withDetail("unread", mailpitInfo.unread())
+			.withDetail("databaseSize", mailpitInfo.databaseSize());
+	}
+
+}
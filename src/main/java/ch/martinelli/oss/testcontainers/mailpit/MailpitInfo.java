@@ -0,0 +1,20 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Information about a running Mailpit instance, as returned by its info API.
+ *
+ * @param version the Mailpit version
+ * @param database the path of the database file
+ * @param databaseSize the size of the database in bytes
+ * @param messages the total number of messages
+ * @param unread the number of unread messages
+ * @see <a href="https://mailpit.axllent.org/docs/api-v1/">Mailpit API Documentation</a>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MailpitInfo(@JsonProperty("Version") String version, @JsonProperty("Database") String database,
+		@JsonProperty("DatabaseSize") long databaseSize, @JsonProperty("Messages") long messages,
+		@JsonProperty("Unread") long unread) {
+}
@@ -0,0 +1,75 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registers gauges for the mailbox of a Mailpit instance:
+ * <ul>
+ * <li>{@value #MESSAGES}: the total number of messages</li>
+ * <li>{@value #UNREAD}: the number of unread messages</li>
+ * <li>{@value #DATABASE_SIZE}: the size of the database in bytes</li>
+ * </ul>
+ * The values come from a {@link CachedMailpitInfo}, so scraping more often does not query
+ * Mailpit more often. While Mailpit is unreachable, the gauges report {@code NaN}.
+ */
+public class MailpitMeterBinder implements MeterBinder {
+
+	/**
+	 * The name of the total messages gauge.
+	 */
+	public static final String MESSAGES = "mailpit.messages";
+
+	/**
+	 * The name of the unread messages gauge.
+	 */
+	public static final String UNREAD = "mailpit.messages.unread";
+
+	/**
+	 * The name of the database size gauge.
+	 */
+	public static final String DATABASE_SIZE = "mailpit.database.size";
+
+	private final CachedMailpitInfo info;
+
+	/**
+	 * Creates a meter binder.
+	 * @param info the cached Mailpit info
+	 */
+	public MailpitMeterBinder(CachedMailpitInfo info) {
+		this.info = info;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(MESSAGES, info, gauge(MailpitInfo::messages))
+			.description("Total number of messages in Mailpit")
+			.strongReference(true)
+			.register(registry);
+		Gauge.builder(UNREAD, info, gauge(MailpitInfo::unread))
+			.description("Number of unread messages in Mailpit")
+			.strongReference(true)
+			.register(registry);
+		Gauge.builder(DATABASE_SIZE, info, gauge(MailpitInfo::databaseSize))
+			.description("Size of the Mailpit database")
+			.baseUnit("bytes")
+			.strongReference(true)
+			.register(registry);
+	}
+
+	private static ToDoubleFunction<CachedMailpitInfo> gauge(ToLongFunction<MailpitInfo> value) {
+		return cachedInfo -> {
+			try {
+				return value.applyAsLong(cachedInfo.get());
+			}
+			catch (MailpitException e) {
+				return Double.NaN;
+			}
+		};
+	}
+
+}
@@ -1,6 +1,11 @@
 package ch.martinelli.oss.testcontainers.mailpit;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Configuration properties for Mailpit.
@@ -11,9 +16,49 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * @param host the SMTP host address
  * @param port the SMTP port
  * @param httpUrl the base URL for the Mailpit web interface and REST API
+ * @param smtpPool the SMTP connection pool of the auto-configured JavaMailSender
+ * @param smtpAsync the asynchronous sending of the auto-configured JavaMailSender
+ * @param smtp the SMTP connection settings of the auto-configured JavaMailSender
+ * @param client the HTTP settings of the auto-configured MailpitClient
+ * @param infoCacheTtl how long the Mailpit info for health checks and metrics is cached
  */
 @ConfigurationProperties(prefix = "mailpit")
-public record MailpitProperties(String host, int port, String httpUrl) {
+public record MailpitProperties(@DefaultValue("localhost") String host, @DefaultValue("1025") int port,
+		@DefaultValue("http://localhost:8025") String httpUrl, @DefaultValue SmtpPool smtpPool,
+		@DefaultValue SmtpAsync smtpAsync, @DefaultValue Smtp smtp, @DefaultValue Client client,
+		@DefaultValue("10s") Duration infoCacheTtl) {
+
+	static final Duration DEFAULT_INFO_CACHE_TTL = Duration.ofSeconds(10);
+
+	/**
+	 * Creates a new MailpitProperties.
+	 * @param host the SMTP host address
+	 * @param port the SMTP port
+	 * @param httpUrl the base URL for the Mailpit web interface and REST API
+	 * @param smtpPool the SMTP connection pool of the auto-configured JavaMailSender
+	 * @param smtpAsync the asynchronous sending of the auto-configured JavaMailSender
+	 * @param smtp the SMTP connection settings of the auto-configured JavaMailSender
+	 * @param client the HTTP settings of the auto-configured MailpitClient
+	 * @param infoCacheTtl how long the Mailpit info for health checks and metrics is
+	 * cached
+	 */
+	@ConstructorBinding
+	public MailpitProperties {
+	}
+
+	/**
+	 * Creates a new MailpitProperties without SMTP connection pooling and asynchronous
+	 * sending, and with the default timeouts.
+	 * @param host the SMTP host address
+	 * @param port the SMTP port
+	 * @param httpUrl the base URL for the Mailpit web interface and REST API
+	 */
+	public MailpitProperties(String host, int port, String httpUrl) {
+		this(host, port, httpUrl, new SmtpPool(false, SmtpPool.DEFAULT_MAX_SIZE),
+				new SmtpAsync(false, SmtpAsync.DEFAULT_BATCH_SIZE),
+				new Smtp(Smtp.DEFAULT_CONNECT_TIMEOUT, Smtp.DEFAULT_READ_TIMEOUT, Smtp.DEFAULT_WRITE_TIMEOUT, Map.of()),
+				new Client(Client.DEFAULT_CONNECT_TIMEOUT, Client.DEFAULT_REQUEST_TIMEOUT), DEFAULT_INFO_CACHE_TTL);
+	}
 
 	/**
 	 * Creates a new MailpitProperties with default values.
@@ -22,4 +67,77 @@ public record MailpitProperties(String host, int port, String httpUrl) {
 		this("localhost", 1025, "http://localhost:8025");
 	}
 
+	/**
+	 * Configuration of the SMTP connection pool used by the auto-configured
+	 * JavaMailSender.
+	 *
+	 * @param enabled whether SMTP connections are kept open and reused between sends
+	 * @param maxSize the maximum number of open SMTP connections
+	 * @see PooledJavaMailSender
+	 */
+	public record SmtpPool(boolean enabled, @DefaultValue("4") int maxSize) {
+
+		static final int DEFAULT_MAX_SIZE = 4;
+
+	}
+
+	/**
+	 * Configuration of asynchronous, batched sending by the auto-configured
+	 * JavaMailSender.
+	 *
+	 * @param enabled whether messages are queued and sent in the background
+	 * @param batchSize the maximum number of messages sent in one SMTP session
+	 * @see AsyncJavaMailSender
+	 */
+	public record SmtpAsync(boolean enabled, @DefaultValue("50") int batchSize) {
+
+		static final int DEFAULT_BATCH_SIZE = 50;
+
+	}
+
+	/**
+	 * SMTP connection settings of the auto-configured JavaMailSender.
+	 *
+	 * @param connectTimeout the maximum time to establish an SMTP connection
+	 * @param readTimeout the maximum time to wait for an SMTP response
+	 * @param writeTimeout the maximum time to write to an SMTP connection
+	 * @param properties additional Jakarta Mail properties, such as
+	 * {@code mail.smtp.auth}, which take precedence over the settings above
+	 */
+	public record Smtp(@DefaultValue("10s") Duration connectTimeout, @DefaultValue("30s") Duration readTimeout,
+			@DefaultValue("30s") Duration writeTimeout, Map<String, String> properties) {
+
+		static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+		static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+		static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(30);
+
+		/**
+		 * Creates new SMTP connection settings.
+		 * @param connectTimeout the maximum time to establish an SMTP connection
+		 * @param readTimeout the maximum time to wait for an SMTP response
+		 * @param writeTimeout the maximum time to write to an SMTP connection
+		 * @param properties additional Jakarta Mail properties
+		 */
+		public Smtp {
+			properties = properties != null ? Map.copyOf(properties) : Map.of();
+		}
+
+	}
+
+	/**
+	 * HTTP settings of the auto-configured MailpitClient.
+	 *
+	 * @param connectTimeout the maximum time to establish an HTTP connection
+	 * @param requestTimeout the maximum time to wait for an HTTP response
+	 */
+	public record Client(@DefaultValue("10s") Duration connectTimeout, @DefaultValue("30s") Duration requestTimeout) {
+
+		static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+		static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	}
+
 }
@@ -0,0 +1,50 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * {@link RuntimeHintsRegistrar} for the types that Jackson binds reflectively when
+ * talking to the Mailpit API, so that the library works in AOT-processed contexts and
+ * native images.
+ * <p>
+ * Applications that use the library without Spring get the same hints from the
+ * reachability metadata in {@code META-INF/native-image}.
+ */
+class MailpitRuntimeHints implements RuntimeHintsRegistrar {
+
+	/**
+	 * The Jackson bound types. Their nested records, such as {@link Address}, are
+	 * registered along with them.
+	 */
+	static final List<Class<?>> BINDING_TYPES = List.of(Message.class, MessagesResponse.class, MailpitInfo.class,
+			ChaosTriggers.class, SendRequest.class);
+
+	/**
+	 * The private Jackson bound types of {@link MailpitClient}, which can only be
+	 * referenced by name.
+	 */
+	static final List<String> PRIVATE_BINDING_TYPES = List.of(MailpitClient.class.getName() + "$SendResponse",
+			MailpitClient.class.getName() + "$DeleteRequest");
+
+	private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		bindingRegistrar.registerReflectionHints(hints.reflection(), BINDING_TYPES.toArray(Class<?>[]::new));
+		for (String typeName : PRIVATE_BINDING_TYPES) {
+			bindingRegistrar.registerReflectionHints(hints.reflection(),
+					ClassUtils.resolveClassName(typeName, classLoader));
+		}
+		hints.reflection()
+			.registerType(TypeReference.of(MailpitContainerConnectionDetailsFactory.class),
+					MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+	}
+
+}
@@ -0,0 +1,126 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally reads the Mailpit mailbox, returning only messages that have not been
+ * returned before.
+ * <p>
+ * Mailpit lists messages newest first. Each call to {@link #next()} pages through the
+ * mailbox only until it reaches messages older than the newest one already seen, so the
+ * cost of a poll is proportional to the number of new arrivals rather than to the size of
+ * the mailbox. The first call returns all messages currently in the mailbox.
+ * <p>
+ * Paging stops at the first message whose {@code Created} time is more than the grace
+ * period older than the newest message already seen. A message stored later with an older
+ * {@code Created} time, for example one imported with its original date, is therefore
+ * never returned. Use {@link #MessageCursor(MailpitClient, Duration)} with a longer grace
+ * period if messages can arrive that much out of order.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class MessageCursor {
+
+	static final int PAGE_SIZE = 50;
+
+	/**
+	 * Messages received concurrently may be stored slightly out of order, so by default
+	 * messages created within this window before the newest seen message are still
+	 * examined.
+	 */
+	static final Duration DEFAULT_GRACE_PERIOD = Duration.ofMillis(100);
+
+	private final MailpitClient client;
+
+	private final Duration gracePeriod;
+
+	private final Map<String, Instant> recentlySeen = new HashMap<>();
+
+	private Instant newestSeen;
+
+	public MessageCursor(MailpitClient client) {
+		this(client, DEFAULT_GRACE_PERIOD);
+	}
+
+	/**
+	 * Creates a cursor that tolerates messages stored out of order by up to the given
+	 * grace period.
+	 * @param client the client to read the mailbox with
+	 * @param gracePeriod how much older than the newest seen message a new message may be
+	 */
+	public MessageCursor(MailpitClient client, Duration gracePeriod) {
+		this.client = client;
+		this.gracePeriod = gracePeriod;
+	}
+
+	/**
+	 * Creates a cursor that skips the messages currently in the mailbox, so that the
+	 * first call to {@link #next()} only returns messages arriving after this call.
+	 * Unlike calling {@link #next()} once to skip them, this reads a single page however
+	 * large the mailbox is.
+	 * @param client the client to read the mailbox with
+	 * @return the cursor
+	 * @throws MailpitException if an error occurs while fetching messages
+	 */
+	public static MessageCursor startingNow(MailpitClient client) {
+		MessageCursor cursor = new MessageCursor(client);
+		List<Message> newest = client.getMessages(0, PAGE_SIZE);
+		newest.forEach(message -> cursor.recentlySeen.put(message.id(), message.created()));
+		cursor.advance(newest);
+		return cursor;
+	}
+
+	/**
+	 * Returns the messages that arrived since the previous call, newest first.
+	 * @return the new messages, empty if nothing arrived
+	 * @throws MailpitException if an error occurs while fetching messages
+	 */
+	public List<Message> next() {
+		Instant threshold = newestSeen != null ? newestSeen.minus(gracePeriod) : null;
+		List<Message> arrivals = new ArrayList<>();
+		Set<String> arrivalIds = new HashSet<>();
+		int start = 0;
+		boolean reachedSeen = false;
+		while (!reachedSeen) {
+			List<Message> page = client.getMessages(start, PAGE_SIZE);
+			for (Message message : page) {
+				if (threshold != null && message.created() != null && message.created().isBefore(threshold)) {
+					reachedSeen = true;
+					break;
+				}
+				if (!recentlySeen.containsKey(message.id()) && arrivalIds.add(message.id())) {
+					arrivals.add(message);
+				}
+			}
+			if (page.size() < PAGE_SIZE) {
+				break;
+			}
+			start += page.size();
+		}
+		// Only remember the arrivals once all pages were fetched, so that a failed call
+		// can be retried without losing messages
+		arrivals.forEach(message -> recentlySeen.put(message.id(), message.created()));
+		advance(arrivals);
+		return arrivals;
+	}
+
+	private void advance(List<Message> arrivals) {
+		for (Message message : arrivals) {
+			if (message.created() != null && (newestSeen == null || message.created().isAfter(newestSeen))) {
+				newestSeen = message.created();
+			}
+		}
+		if (newestSeen != null) {
+			Instant threshold = newestSeen.minus(gracePeriod);
+			recentlySeen.values().removeIf(created -> created != null && created.isBefore(threshold));
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Flow.Publisher} of messages arriving in Mailpit.
+ * <p>
+ * The publisher polls Mailpit through a {@link MessageCursor} and publishes each new
+ * message once, in arrival order, to all subscribers. Messages already in the mailbox
+ * when the publisher is created are not published. Polling starts with the first
+ * subscription and stops when the publisher is closed, which completes all subscribers.
+ * <p>
+ * A failed poll, for example a timeout, is retried with an exponentially growing delay.
+ * Only after {@value #MAX_CONSECUTIVE_FAILURES} failed polls in a row are the subscribers
+ * completed exceptionally with the last error.
+ * <p>
+ * Each subscriber has a bounded buffer. When a subscriber falls behind, the
+ * {@link OverflowPolicy} decides whether polling blocks until the subscriber catches up
+ * or whether messages are dropped for that subscriber.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * try (MessagePublisher publisher = mailpit.getClient().messagePublisher()) {
+ *     publisher.subscribe(subscriber);
+ *     // run the load test...
+ * }
+ * }</pre>
+ */
+public class MessagePublisher implements Flow.Publisher<Message>, AutoCloseable {
+
+	/**
+	 * Strategy for handling a subscriber whose buffer is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Stop polling until every subscriber has room for the next message. Closing the
+		 * publisher ends the wait.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the message for subscribers whose buffer is full and continue polling.
+		 */
+		DROP
+
+	}
+
+	/**
+	 * The number of failed polls in a row after which publishing ends.
+	 */
+	public static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+	private final MessageCursor cursor;
+
+	private final Duration pollInterval;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final SubmissionPublisher<Message> publisher;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private final AtomicLong failureCount = new AtomicLong();
+
+	private int consecutiveFailures;
+
+	/**
+	 * Creates a publisher for the given client.
+	 * @param client the client to poll
+	 * @param pollInterval the interval between polls
+	 * @param bufferCapacity the maximum number of buffered messages per subscriber,
+	 * rounded up to the nearest power of two
+	 * @param overflowPolicy the strategy when a subscriber's buffer is full
+	 * @throws MailpitException if the current mailbox state cannot be read
+	 */
+	public MessagePublisher(MailpitClient client, Duration pollInterval, int bufferCapacity,
+			OverflowPolicy overflowPolicy) {
+		// Skip messages that are already in the mailbox
+		this.cursor = MessageCursor.startingNow(client);
+		this.pollInterval = pollInterval;
+		this.overflowPolicy = overflowPolicy;
+		this.publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mailpit-publisher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super Message> subscriber) {
+		publisher.subscribe(subscriber);
+		if (started.compareAndSet(false, true)) {
+			schedulePoll(0);
+		}
+	}
+
+	/**
+	 * Returns the number of messages dropped for subscribers whose buffer was full.
+	 * @return the number of dropped messages, always zero with
+	 * {@link OverflowPolicy#BLOCK}
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * Returns the number of failed polls, including those that were retried successfully.
+	 * @return the number of failed polls
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * Stops polling and completes all subscribers.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		publisher.close();
+	}
+
+	private void poll() {
+		List<Message> arrivals;
+		try {
+			arrivals = cursor.next();
+		}
+		catch (MailpitException e) {
+			failureCount.incrementAndGet();
+			if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+				terminate(e);
+			}
+			else {
+				schedulePoll(pollInterval.toMillis() << consecutiveFailures);
+			}
+			return;
+		}
+		catch (RuntimeException e) {
+			terminate(e);
+			return;
+		}
+		consecutiveFailures = 0;
+		try {
+			for (int i = arrivals.size() - 1; i >= 0; i--) {
+				publish(arrivals.get(i));
+			}
+		}
+		catch (RuntimeException e) {
+			terminate(e);
+			return;
+		}
+		schedulePoll(pollInterval.toMillis());
+	}
+
+	/**
+	 * Waits until every subscriber has room for another message. Unlike a blocking
+	 * {@link SubmissionPublisher#submit(Object)}, the wait ends when the publisher is
+	 * closed.
+	 * @return {@code false} if the publisher was closed while waiting
+	 */
+	@SuppressWarnings("java:S2925")
+	private boolean awaitCapacity() {
+		while (publisher.estimateMaximumLag() >= publisher.getMaxBufferCapacity()) {
+			if (publisher.isClosed()) {
+				return false;
+			}
+			try {
+				TimeUnit.MILLISECONDS.sleep(1);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return !publisher.isClosed();
+	}
+
+	private void schedulePoll(long delayMillis) {
+		try {
+			scheduler.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (RejectedExecutionException e) {
+			// The publisher was closed
+		}
+	}
+
+	private void terminate(RuntimeException e) {
+		scheduler.shutdown();
+		publisher.closeExceptionally(e);
+	}
+
+	private void publish(Message message) {
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			if (awaitCapacity()) {
+				publisher.submit(message);
+			}
+		}
+		else {
+			publisher.offer(message, (subscriber, dropped) -> {
+				droppedCount.incrementAndGet();
+				return false;
+			});
+		}
+	}
+
+}
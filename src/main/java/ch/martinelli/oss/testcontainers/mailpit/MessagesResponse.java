@@ -6,10 +6,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
 /**
- * Represents the response from the Mailpit messages list API.
+ * Represents the response from the Mailpit messages list and search APIs.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 record MessagesResponse(@JsonProperty("messages") List<Message> messages, @JsonProperty("total") int total,
 		@JsonProperty("unread") int unread, @JsonProperty("count") int count, @JsonProperty("start") int start,
-		@JsonProperty("tags") List<String> tags) {
+		@JsonProperty("tags") List<String> tags, @JsonProperty("messages_count") int messagesCount) {
 }
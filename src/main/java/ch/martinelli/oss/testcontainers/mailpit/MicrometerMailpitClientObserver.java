@@ -0,0 +1,72 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * A {@link MailpitClientObserver} that records Micrometer metrics:
+ * <ul>
+ * <li>{@value #REQUESTS}: timer of API requests, tagged with {@code endpoint},
+ * {@code method} and {@code status}</li>
+ * <li>{@value #RESPONSE_SIZE}: distribution summary of response sizes in bytes, tagged
+ * with {@code endpoint}</li>
+ * <li>{@value #AWAITS}: timer of waits for messages, tagged with {@code found}</li>
+ * </ul>
+ */
+public class MicrometerMailpitClientObserver implements MailpitClientObserver {
+
+	/**
+	 * The name of the request timer.
+	 */
+	public static final String REQUESTS = "mailpit.client.requests";
+
+	/**
+	 * The name of the response size distribution summary.
+	 */
+	public static final String RESPONSE_SIZE = "mailpit.client.response.size";
+
+	/**
+	 * The name of the await timer.
+	 */
+	public static final String AWAITS = "mailpit.client.awaits";
+
+	private final MeterRegistry registry;
+
+	/**
+	 * Creates an observer that records into the given registry.
+	 * @param registry the meter registry
+	 */
+	public MicrometerMailpitClientObserver(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void requestCompleted(String endpoint, String method, int status, Duration duration, long responseBytes) {
+		Timer.builder(REQUESTS)
+			.description("Requests to the Mailpit API")
+			.tag("endpoint", endpoint)
+			.tag("method", method)
+			.tag("status", status == 0 ? "IO_ERROR" : String.valueOf(status))
+			.register(registry)
+			.record(duration);
+		DistributionSummary.builder(RESPONSE_SIZE)
+			.description("Response sizes of the Mailpit API")
+			.baseUnit("bytes")
+			.tag("endpoint", endpoint)
+			.register(registry)
+			.record(responseBytes);
+	}
+
+	@Override
+	public void awaitCompleted(boolean found, Duration duration) {
+		Timer.builder(AWAITS)
+			.description("Waits for messages in Mailpit")
+			.tag("found", String.valueOf(found))
+			.register(registry)
+			.record(duration);
+	}
+
+}
@@ -0,0 +1,130 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link MailpitClient} whose view of the mailbox is limited to one namespace, so that
+ * tests running in parallel can share a single Mailpit container.
+ * <p>
+ * A namespace is a Mailpit tag. Messages are assigned to the namespace in one of these
+ * ways:
+ * <ul>
+ * <li>by sending them to a plus address returned by {@link #address(String)}, which
+ * Mailpit tags automatically</li>
+ * <li>by adding the header {@value #TAGS_HEADER} with the namespace as value</li>
+ * <li>by injecting them through {@link #sendMessage(SendRequest)}, which adds the
+ * tag</li>
+ * </ul>
+ * Listing, counting and deleting messages, and everything built on top of it such as
+ * {@link MessageCursor} and awaiting with AssertJ, is scoped to the namespace through
+ * Mailpit's server-side search.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * NamespacedMailpitClient client = mailpit.getClient().namespace("test-42");
+ * mailService.sendWelcome(client.address("alice@example.com"));
+ *
+ * assertThat(mailpit).usingClient(client).awaitMessage().withSubject("Welcome").isPresent();
+ * }</pre>
+ */
+public class NamespacedMailpitClient extends MailpitClient {
+
+	/**
+	 * The message header Mailpit reads tags from.
+	 */
+	public static final String TAGS_HEADER = "X-Tags";
+
+	private static final Pattern VALID_NAMESPACE = Pattern.compile("[A-Za-z0-9._-]+");
+
+	private final String namespace;
+
+	private final String query;
+
+	/**
+	 * Creates a namespaced client.
+	 * @param baseUrl the Mailpit base URL
+	 * @param namespace the namespace, consisting of letters, digits, {@code .}, {@code _}
+	 * and {@code -}
+	 */
+	public NamespacedMailpitClient(String baseUrl, String namespace) {
+		this(baseUrl, namespace, HttpClient.newHttpClient(), null);
+	}
+
+	/**
+	 * Creates a namespaced client that shares the HTTP connections of its parent client.
+	 */
+	NamespacedMailpitClient(String baseUrl, String namespace, HttpClient httpClient, Duration requestTimeout) {
+		super(baseUrl, httpClient, requestTimeout);
+		if (!VALID_NAMESPACE.matcher(namespace).matches()) {
+			throw new IllegalArgumentException(
+					"Invalid namespace: " + namespace + " (only letters, digits, '.', '_' and '-' are allowed)");
+		}
+		this.namespace = namespace;
+		this.query = "tag:" + namespace;
+	}
+
+	/**
+	 * Returns the namespace, which is also the tag of its messages.
+	 * @return the namespace
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * Returns the plus address of the given address in this namespace, for example
+	 * {@code alice+test-42@example.com} for {@code alice@example.com}. Mailpit tags
+	 * messages sent to plus addresses with the part after the {@code +}.
+	 * @param address the email address
+	 * @return the address within this namespace
+	 */
+	public String address(String address) {
+		int at = address.lastIndexOf('@');
+		if (at < 0) {
+			throw new IllegalArgumentException("Not an email address: " + address);
+		}
+		return address.substring(0, at) + "+" + namespace + address.substring(at);
+	}
+
+	@Override
+	public List<Message> getAllMessages() {
+		return searchMessages(query);
+	}
+
+	@Override
+	public List<Message> getMessages(int start, int limit) {
+		return searchMessages(query, start, limit);
+	}
+
+	@Override
+	public int getMessageCount() {
+		return countMessages(query);
+	}
+
+	/**
+	 * Deletes all messages in this namespace.
+	 * @throws MailpitException if an error occurs
+	 */
+	@Override
+	public void deleteAllMessages() {
+		deleteMessagesMatching(query);
+	}
+
+	@Override
+	SendRequest prepare(SendRequest sendRequest) {
+		List<String> tags = new ArrayList<>();
+		if (sendRequest.tags() != null) {
+			tags.addAll(sendRequest.tags());
+		}
+		if (!tags.contains(namespace)) {
+			tags.add(namespace);
+		}
+		return sendRequest.withTags(tags.toArray(String[]::new));
+	}
+
+}
@@ -0,0 +1,197 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A {@link JavaMailSenderImpl} that keeps SMTP connections open and reuses them across
+ * {@code send} calls instead of connecting and disconnecting for every call.
+ * <p>
+ * At most {@code maxSize} connections are open at the same time; further senders wait
+ * until a connection is returned. An idle connection is validated with
+ * {@link Transport#isConnected()}, which sends an SMTP {@code NOOP}, before it is reused,
+ * and replaced by a new connection if the server has closed it.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * PooledJavaMailSender mailSender = new PooledJavaMailSender(4);
+ * mailSender.setHost(mailpit.getSmtpHost());
+ * mailSender.setPort(mailpit.getSmtpPort());
+ * }</pre>
+ *
+ * Call {@link #close()} to close the idle connections when the sender is no longer used.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements AutoCloseable {
+
+	private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+	private final Semaphore permits;
+
+	private final Deque<Transport> idleTransports = new ArrayDeque<>();
+
+	private boolean closed;
+
+	/**
+	 * Creates a pooled mail sender.
+	 * @param maxSize the maximum number of open SMTP connections
+	 */
+	public PooledJavaMailSender(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+		}
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * Returns the number of open connections that are not in use.
+	 * @return the number of idle connections
+	 */
+	public synchronized int getIdleCount() {
+		return idleTransports.size();
+	}
+
+	/**
+	 * Sends the messages over a pooled connection. The connection is only checked again
+	 * after a failed message, so that a batch costs no extra round trips.
+	 */
+	@Override
+	protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+		Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+		Transport transport = borrowTransport();
+		try {
+			for (int i = 0; i < mimeMessages.length; i++) {
+				if (transport == null) {
+					try {
+						transport = connectTransport();
+					}
+					catch (AuthenticationFailedException e) {
+						throw new MailAuthenticationException(e);
+					}
+					catch (Exception e) {
+						for (int j = i; j < mimeMessages.length; j++) {
+							failedMessages.put(original(mimeMessages, originalMessages, j), e);
+						}
+						throw new MailSendException("Mail server connection failed", e, failedMessages);
+					}
+				}
+				MimeMessage mimeMessage = mimeMessages[i];
+				try {
+					if (mimeMessage.getSentDate() == null) {
+						mimeMessage.setSentDate(new Date());
+					}
+					String messageId = mimeMessage.getMessageID();
+					mimeMessage.saveChanges();
+					if (messageId != null) {
+						// Preserve an explicitly set message id
+						mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+					}
+					Address[] addresses = mimeMessage.getAllRecipients();
+					transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+				}
+				catch (Exception e) {
+					failedMessages.put(original(mimeMessages, originalMessages, i), e);
+					if (!transport.isConnected()) {
+						closeQuietly(transport);
+						transport = null;
+					}
+				}
+			}
+		}
+		finally {
+			returnTransport(transport);
+		}
+		if (!failedMessages.isEmpty()) {
+			throw new MailSendException(failedMessages);
+		}
+	}
+
+	/**
+	 * Closes all idle connections. Connections in use are closed when they are returned.
+	 */
+	@Override
+	public void close() {
+		Deque<Transport> toClose;
+		synchronized (this) {
+			closed = true;
+			toClose = new ArrayDeque<>(idleTransports);
+			idleTransports.clear();
+		}
+		toClose.forEach(PooledJavaMailSender::closeQuietly);
+	}
+
+	/**
+	 * Waits for a free pool slot and returns a validated idle connection, or {@code null}
+	 * if a new one has to be opened.
+	 */
+	private Transport borrowTransport() {
+		try {
+			permits.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+		}
+		while (true) {
+			Transport transport;
+			synchronized (this) {
+				if (closed) {
+					permits.release();
+					throw new MailSendException("Mail sender is closed");
+				}
+				transport = idleTransports.pollLast();
+			}
+			if (transport == null || transport.isConnected()) {
+				return transport;
+			}
+			closeQuietly(transport);
+		}
+	}
+
+	private void returnTransport(Transport transport) {
+		try {
+			if (transport != null) {
+				synchronized (this) {
+					if (!closed) {
+						idleTransports.addLast(transport);
+						return;
+					}
+				}
+				closeQuietly(transport);
+			}
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	private static Object original(MimeMessage[] mimeMessages, Object[] originalMessages, int index) {
+		return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+	}
+
+	private static void closeQuietly(Transport transport) {
+		if (transport != null) {
+			try {
+				transport.close();
+			}
+			catch (MessagingException e) {
+				// The connection is discarded anyway
+			}
+		}
+	}
+
+}
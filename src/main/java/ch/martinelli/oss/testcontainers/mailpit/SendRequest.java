@@ -0,0 +1,146 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message to be injected into Mailpit through its send API.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * SendRequest request = SendRequest.of("sender@example.com", "user@example.com", "Welcome", "Hello!")
+ *     .withHtml("<p>Hello!</p>")
+ *     .withTags("fixture");
+ * }</pre>
+ *
+ * @param from the sender
+ * @param to the TO recipients
+ * @param cc the CC recipients
+ * @param bcc the BCC recipient addresses
+ * @param replyTo the Reply-To addresses
+ * @param subject the subject
+ * @param text the plain text body
+ * @param html the HTML body
+ * @param tags the tags to apply to the message
+ * @param headers additional message headers
+ * @param attachments the attachments
+ * @see <a href="https://mailpit.axllent.org/docs/api-v1/">Mailpit API Documentation</a>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SendRequest(@JsonProperty("From") Contact from, @JsonProperty("To") List<Contact> to,
+		@JsonProperty("Cc") List<Contact> cc, @JsonProperty("Bcc") List<String> bcc,
+		@JsonProperty("ReplyTo") List<Contact> replyTo, @JsonProperty("Subject") String subject,
+		@JsonProperty("Text") String text, @JsonProperty("HTML") String html, @JsonProperty("Tags") List<String> tags,
+		@JsonProperty("Headers") Map<String, String> headers,
+		@JsonProperty("Attachments") List<Attachment> attachments) {
+
+	/**
+	 * Creates a plain text message.
+	 * @param from the sender address
+	 * @param to the recipient address
+	 * @param subject the subject
+	 * @param text the plain text body
+	 * @return the request
+	 */
+	public static SendRequest of(String from, String to, String subject, String text) {
+		return new SendRequest(new Contact(from, null), List.of(new Contact(to, null)), null, null, null, subject, text,
+				null, null, null, null);
+	}
+
+	/**
+	 * Returns a copy of this request with the given HTML body.
+	 * @param html the HTML body
+	 * @return the new request
+	 */
+	public SendRequest withHtml(String html) {
+		return new SendRequest(from, to, cc, bcc, replyTo, subject, text, html, tags, headers, attachments);
+	}
+
+	/**
+	 * Returns a copy of this request with the given CC recipients.
+	 * @param addresses the CC addresses
+	 * @return the new request
+	 */
+	public SendRequest withCc(String... addresses) {
+		List<Contact> contacts = Arrays.stream(addresses).map(address -> new Contact(address, null)).toList();
+		return new SendRequest(from, to, contacts, bcc, replyTo, subject, text, html, tags, headers, attachments);
+	}
+
+	/**
+	 * Returns a copy of this request with the given BCC recipients.
+	 * @param addresses the BCC addresses
+	 * @return the new request
+	 */
+	public SendRequest withBcc(String... addresses) {
+		return new SendRequest(from, to, cc, List.of(addresses), replyTo, subject, text, html, tags, headers,
+				attachments);
+	}
+
+	/**
+	 * Returns a copy of this request with the given tags.
+	 * @param tags the tags
+	 * @return the new request
+	 */
+	public SendRequest withTags(String... tags) {
+		return new SendRequest(from, to, cc, bcc, replyTo, subject, text, html, List.of(tags), headers, attachments);
+	}
+
+	/**
+	 * Returns a copy of this request with the given additional headers.
+	 * @param headers the headers
+	 * @return the new request
+	 */
+	public SendRequest withHeaders(Map<String, String> headers) {
+		return new SendRequest(from, to, cc, bcc, replyTo, subject, text, html, tags, Map.copyOf(headers), attachments);
+	}
+
+	/**
+	 * Returns a copy of this request with the given attachments.
+	 * @param attachments the attachments
+	 * @return the new request
+	 */
+	public SendRequest withAttachments(Attachment... attachments) {
+		return new SendRequest(from, to, cc, bcc, replyTo, subject, text, html, tags, headers, List.of(attachments));
+	}
+
+	/**
+	 * A sender or recipient.
+	 *
+	 * @param email the email address
+	 * @param name the display name, may be null
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record Contact(@JsonProperty("Email") String email, @JsonProperty("Name") String name) {
+	}
+
+	/**
+	 * A file attached to the message.
+	 *
+	 * @param content the Base64 encoded file content
+	 * @param filename the file name
+	 * @param contentType the MIME type, detected by Mailpit if null
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record Attachment(@JsonProperty("Content") String content, @JsonProperty("Filename") String filename,
+			@JsonProperty("ContentType") String contentType) {
+
+		/**
+		 * Creates an attachment from raw bytes.
+		 * @param filename the file name
+		 * @param contentType the MIME type
+		 * @param content the file content
+		 * @return the attachment
+		 */
+		public static Attachment of(String filename, String contentType, byte[] content) {
+			return new Attachment(Base64.getEncoder().encodeToString(content), filename, contentType);
+		}
+
+	}
+
+}
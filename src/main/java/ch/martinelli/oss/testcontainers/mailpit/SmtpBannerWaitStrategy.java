@@ -0,0 +1,65 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits until the SMTP server greets clients with its {@code 220} banner.
+ * <p>
+ * Checking the banner rather than only opening a connection matters because the Docker
+ * port proxy accepts connections before the server inside the container listens.
+ */
+@SuppressWarnings("java:S2142")
+class SmtpBannerWaitStrategy extends AbstractWaitStrategy {
+
+	private static final int RETRY_INTERVAL_MILLIS = 50;
+
+	private final int port;
+
+	SmtpBannerWaitStrategy(int port) {
+		this.port = port;
+	}
+
+	@Override
+	protected void waitUntilReady() {
+		String host = waitStrategyTarget.getHost();
+		int mappedPort = waitStrategyTarget.getMappedPort(port);
+		long deadline = System.nanoTime() + startupTimeout.toNanos();
+		while (!isBannerReceived(host, mappedPort)) {
+			if (System.nanoTime() > deadline) {
+				throw new ContainerLaunchException("Timed out waiting for the SMTP banner on " + host + ":" + mappedPort
+						+ " after " + startupTimeout);
+			}
+			try {
+				TimeUnit.MILLISECONDS.sleep(RETRY_INTERVAL_MILLIS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ContainerLaunchException("Interrupted while waiting for the SMTP banner", e);
+			}
+		}
+	}
+
+	private static boolean isBannerReceived(String host, int port) {
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(host, port), 1000);
+			socket.setSoTimeout(1000);
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			String line = reader.readLine();
+			return line != null && line.startsWith("220");
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package ch.martinelli.oss.testcontainers.mailpit.assertions;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+import ch.martinelli.oss.testcontainers.mailpit.MessageCursor;
+import org.awaitility.Awaitility;
+import org.awaitility.core.ConditionTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Waits for a set of expected messages in a single polling loop.
+ * <p>
+ * Every poll reads only the newly arrived messages and tests them against all
+ * expectations. Each message satisfies at most one expectation; when a message matches
+ * several expectations, it is assigned so that as many expectations as possible are
+ * satisfied.
+ */
+class BatchMessageAwaiter {
+
+	private final MailpitClient client;
+
+	private final MessageCursor cursor;
+
+	private final List<MessageAwaiter> expectations;
+
+	private final Duration timeout;
+
+	private final Duration pollInterval;
+
+	private final List<List<Message>> candidates = new ArrayList<>();
+
+	private final Message[] assigned;
+
+	private final Map<String, Integer> owners = new HashMap<>();
+
+	BatchMessageAwaiter(MailpitClient client, List<MessageAwaiter> expectations, Duration timeout,
+			Duration pollInterval) {
+		this.client = client;
+		this.cursor = new MessageCursor(client);
+		this.expectations = List.copyOf(expectations);
+		this.timeout = timeout;
+		this.pollInterval = pollInterval;
+		this.assigned = new Message[expectations.size()];
+		for (int i = 0; i < expectations.size(); i++) {
+			candidates.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	 * Waits until every expectation is satisfied by a distinct message.
+	 * @return a MessageAssert per expectation, in the order of the expectations
+	 * @throws ConditionTimeoutException if some expectations remain unmatched within the
+	 * timeout, listing the unmatched expectations
+	 */
+	List<MessageAssert> await() {
+		long startNanos = System.nanoTime();
+		try {
+			Awaitility.await().atMost(timeout).pollInterval(pollInterval).until(this::poll);
+			client.getObserver().awaitCompleted(true, Duration.ofNanos(System.nanoTime() - startNanos));
+		}
+		catch (ConditionTimeoutException e) {
+			client.getObserver().awaitCompleted(false, Duration.ofNanos(System.nanoTime() - startNanos));
+			List<MessageAwaiter> unmatched = new ArrayList<>();
+			for (int i = 0; i < assigned.length; i++) {
+				if (assigned[i] == null) {
+					unmatched.add(expectations.get(i));
+				}
+			}
+			throw new ConditionTimeoutException(String.format("%d of %d expected message(s) not found within %s: %s",
+					unmatched.size(), expectations.size(), timeout, unmatched), e);
+		}
+		List<MessageAssert> result = new ArrayList<>();
+		for (Message message : assigned) {
+			result.add(new MessageAssert(message));
+		}
+		return result;
+	}
+
+	private boolean poll() {
+		boolean newCandidates = false;
+		for (Message message : cursor.next()) {
+			MessageBodies bodies = new MessageBodies(client, message);
+			for (int i = 0; i < expectations.size(); i++) {
+				if (expectations.get(i).matches(message, bodies)) {
+					candidates.get(i).add(message);
+					newCandidates = true;
+				}
+			}
+		}
+		boolean complete = true;
+		for (int i = 0; i < assigned.length; i++) {
+			if (assigned[i] == null && !(newCandidates && assign(i, new HashSet<>()))) {
+				complete = false;
+			}
+		}
+		return complete;
+	}
+
+	/**
+	 * Assigns a message to the expectation, moving already assigned messages to other
+	 * expectations where necessary (augmenting path search).
+	 */
+	private boolean assign(int expectation, Set<String> visited) {
+		for (Message message : candidates.get(expectation)) {
+			if (visited.add(message.id())) {
+				Integer owner = owners.get(message.id());
+				if (owner == null || assign(owner, visited)) {
+					owners.put(message.id(), expectation);
+					assigned[expectation] = message;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -7,6 +7,7 @@ import org.assertj.core.api.AbstractAssert;
 import org.awaitility.Awaitility;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -34,6 +35,8 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 
 	private Duration pollInterval = Duration.ofMillis(500);
 
+	private MailpitClient customClient;
+
 	public MailpitContainerAssert(MailpitContainer actual) {
 		super(actual, MailpitContainerAssert.class);
 	}
@@ -56,7 +59,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasMessages() {
 		isNotNull();
-		MailpitClient client = actual.getClient();
+		MailpitClient client = client();
 		if (client.getMessageCount() == 0) {
 			failWithMessage("Expected mailbox to contain messages but it was empty");
 		}
@@ -69,7 +72,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasNoMessages() {
 		isNotNull();
-		MailpitClient client = actual.getClient();
+		MailpitClient client = client();
 		int count = client.getMessageCount();
 		if (count > 0) {
 			failWithMessage("Expected mailbox to be empty but found <%d> message(s)", count);
@@ -84,7 +87,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasMessageCount(int expectedCount) {
 		isNotNull();
-		MailpitClient client = actual.getClient();
+		MailpitClient client = client();
 		int actualCount = client.getMessageCount();
 		if (actualCount != expectedCount) {
 			failWithMessage("Expected mailbox to contain <%d> message(s) but found <%d>", expectedCount, actualCount);
@@ -112,13 +115,52 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 		return this;
 	}
 
+	/**
+	 * Configures the client used for all further assertions instead of the container's
+	 * default client, for example a {@link MailpitClient#namespace(String) namespaced}
+	 * client.
+	 * @param client the client to use
+	 * @return this assertion object
+	 */
+	public MailpitContainerAssert usingClient(MailpitClient client) {
+		this.customClient = client;
+		return this;
+	}
+
 	/**
 	 * Creates a message awaiter to wait for and assert on messages.
 	 * @return a new MessageAwaiter for fluent assertions
 	 */
 	public MessageAwaiter awaitMessage() {
 		isNotNull();
-		return new MessageAwaiter(actual.getClient(), timeout, pollInterval);
+		return new MessageAwaiter(client(), timeout, pollInterval);
+	}
+
+	/**
+	 * Waits until each expectation is satisfied by a distinct message.
+	 * <p>
+	 * All expectations are checked in a single polling loop, which only reads newly
+	 * arrived messages. A message satisfies at most one expectation.
+	 * @param expectations the expected messages, created with {@link #awaitMessage()}
+	 * @return a MessageAssert per expectation, in the order of the expectations
+	 * @throws org.awaitility.core.ConditionTimeoutException if some expectations remain
+	 * unmatched within the timeout; the message lists the unmatched expectations
+	 */
+	public List<MessageAssert> awaitAll(MessageAwaiter... expectations) {
+		return awaitAll(Arrays.asList(expectations));
+	}
+
+	/**
+	 * Waits until each expectation is satisfied by a distinct message.
+	 * @param expectations the expected messages, created with {@link #awaitMessage()}
+	 * @return a MessageAssert per expectation, in the order of the expectations
+	 * @throws org.awaitility.core.ConditionTimeoutException if some expectations remain
+	 * unmatched within the timeout; the message lists the unmatched expectations
+	 * @see #awaitAll(MessageAwaiter...)
+	 */
+	public List<MessageAssert> awaitAll(List<MessageAwaiter> expectations) {
+		isNotNull();
+		return new BatchMessageAwaiter(client(), expectations, timeout, pollInterval).await();
 	}
 
 	/**
@@ -127,7 +169,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert awaitMessages() {
 		isNotNull();
-		MailpitClient client = actual.getClient();
+		MailpitClient client = client();
 		Awaitility.await().atMost(timeout).pollInterval(pollInterval).until(() -> client.getMessageCount() > 0);
 		return this;
 	}
@@ -139,7 +181,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert awaitMessageCount(int expectedCount) {
 		isNotNull();
-		MailpitClient client = actual.getClient();
+		MailpitClient client = client();
 		Awaitility.await()
 			.atMost(timeout)
 			.pollInterval(pollInterval)
@@ -154,7 +196,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MessageAssert firstMessage() {
 		isNotNull();
-		List<Message> messages = actual.getClient().getAllMessages();
+		List<Message> messages = client().getAllMessages();
 		if (messages.isEmpty()) {
 			failWithMessage("Expected mailbox to contain at least one message but it was empty");
 		}
@@ -168,7 +210,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MessageAssert lastMessage() {
 		isNotNull();
-		List<Message> messages = actual.getClient().getAllMessages();
+		List<Message> messages = client().getAllMessages();
 		if (messages.isEmpty()) {
 			failWithMessage("Expected mailbox to contain at least one message but it was empty");
 		}
@@ -181,7 +223,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MessagesAssert messages() {
 		isNotNull();
-		return new MessagesAssert(actual.getClient().getAllMessages());
+		return new MessagesAssert(client().getAllMessages());
 	}
 
 	/**
@@ -191,7 +233,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasMessageWithSubject(String subject) {
 		isNotNull();
-		List<Message> messages = actual.getClient().getAllMessages();
+		List<Message> messages = client().getAllMessages();
 		boolean found = messages.stream().anyMatch(m -> subject.equals(m.subject()));
 		if (!found) {
 			failWithMessage("Expected to find a message with subject <%s> but none was found. Found subjects: %s",
@@ -207,7 +249,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasMessageTo(String recipientAddress) {
 		isNotNull();
-		List<Message> messages = actual.getClient().getAllMessages();
+		List<Message> messages = client().getAllMessages();
 		boolean found = messages.stream()
 			.anyMatch(m -> m.to().stream().anyMatch(addr -> recipientAddress.equals(addr.address())));
 		if (!found) {
@@ -223,7 +265,7 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 	 */
 	public MailpitContainerAssert hasMessageFrom(String senderAddress) {
 		isNotNull();
-		List<Message> messages = actual.getClient().getAllMessages();
+		List<Message> messages = client().getAllMessages();
 		boolean found = messages.stream().anyMatch(m -> m.from() != null && senderAddress.equals(m.from().address()));
 		if (!found) {
 			failWithMessage("Expected to find a message from <%s> but none was found", senderAddress);
@@ -231,4 +273,8 @@ public class MailpitContainerAssert extends AbstractAssert<MailpitContainerAsser
 		return this;
 	}
 
+	private MailpitClient client() {
+		return customClient != null ? customClient : actual.getClient();
+	}
+
 }
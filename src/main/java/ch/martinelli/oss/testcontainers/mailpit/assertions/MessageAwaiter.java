@@ -1,12 +1,24 @@
 package ch.martinelli.oss.testcontainers.mailpit.assertions;
 
 import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitException;
 import ch.martinelli.oss.testcontainers.mailpit.Message;
+import ch.martinelli.oss.testcontainers.mailpit.MessageCursor;
 import org.awaitility.Awaitility;
+import org.awaitility.core.ConditionTimeoutException;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Fluent builder for awaiting and asserting on messages.
@@ -21,17 +33,27 @@ import java.util.function.Predicate;
  *     .to("user@example.com")
  *     .isPresent();
  * }</pre>
+ * <p>
+ * While waiting, the awaiter reads the mailbox through a {@link MessageCursor}, so each
+ * message is fetched and evaluated at most once per wait, no matter how many polls are
+ * needed. {@link #isAbsent()} checks the whole mailbox on every call. Body filters such
+ * as {@link #withTextContaining(String)} are only evaluated for messages that pass all
+ * summary filters, and each body is downloaded at most once.
  */
 public class MessageAwaiter {
 
-	private final MailpitClient client;
-
 	private final Duration timeout;
 
 	private final Duration pollInterval;
 
+	private final MailpitClient client;
+
+	private final List<String> criteria = new ArrayList<>();
+
 	private Predicate<Message> predicate = m -> true;
 
+	private Predicate<MessageBodies> bodyPredicate = bodies -> true;
+
 	public MessageAwaiter(MailpitClient client, Duration timeout, Duration pollInterval) {
 		this.client = client;
 		this.timeout = timeout;
@@ -45,6 +67,7 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter withSubject(String subject) {
 		this.predicate = this.predicate.and(m -> subject.equals(m.subject()));
+		this.criteria.add("subject <" + subject + ">");
 		return this;
 	}
 
@@ -55,6 +78,7 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter withSubjectContaining(String substring) {
 		this.predicate = this.predicate.and(m -> m.subject() != null && m.subject().contains(substring));
+		this.criteria.add("subject containing <" + substring + ">");
 		return this;
 	}
 
@@ -65,6 +89,7 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter from(String senderAddress) {
 		this.predicate = this.predicate.and(m -> m.from() != null && senderAddress.equals(m.from().address()));
+		this.criteria.add("from <" + senderAddress + ">");
 		return this;
 	}
 
@@ -76,6 +101,7 @@ public class MessageAwaiter {
 	public MessageAwaiter to(String recipientAddress) {
 		this.predicate = this.predicate
 			.and(m -> m.to().stream().anyMatch(addr -> recipientAddress.equals(addr.address())));
+		this.criteria.add("to <" + recipientAddress + ">");
 		return this;
 	}
 
@@ -87,6 +113,7 @@ public class MessageAwaiter {
 	public MessageAwaiter cc(String ccAddress) {
 		this.predicate = this.predicate
 			.and(m -> m.cc() != null && m.cc().stream().anyMatch(addr -> ccAddress.equals(addr.address())));
+		this.criteria.add("cc <" + ccAddress + ">");
 		return this;
 	}
 
@@ -96,6 +123,7 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter withAttachments() {
 		this.predicate = this.predicate.and(m -> m.attachmentCount() > 0);
+		this.criteria.add("with attachments");
 		return this;
 	}
 
@@ -105,6 +133,7 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter withoutAttachments() {
 		this.predicate = this.predicate.and(m -> m.attachmentCount() == 0);
+		this.criteria.add("without attachments");
 		return this;
 	}
 
@@ -115,6 +144,40 @@ public class MessageAwaiter {
 	 */
 	public MessageAwaiter matching(Predicate<Message> customPredicate) {
 		this.predicate = this.predicate.and(customPredicate);
+		this.criteria.add("matching custom predicate");
+		return this;
+	}
+
+	/**
+	 * Filters messages by plain text body containing a substring.
+	 * <p>
+	 * The body is only fetched for messages that match all other non-body filters.
+	 * @param substring the substring to search for
+	 * @return this awaiter
+	 */
+	public MessageAwaiter withTextContaining(String substring) {
+		this.bodyPredicate = this.bodyPredicate.and(bodies -> {
+			String text = bodies.plain();
+			return text != null && text.contains(substring);
+		});
+		this.criteria.add("text containing <" + substring + ">");
+		return this;
+	}
+
+	/**
+	 * Filters messages by HTML body containing a match for a regular expression.
+	 * <p>
+	 * The body is only fetched for messages that match all other non-body filters.
+	 * @param regex the regular expression to find in the HTML body
+	 * @return this awaiter
+	 */
+	public MessageAwaiter withHtmlMatching(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		this.bodyPredicate = this.bodyPredicate.and(bodies -> {
+			String html = bodies.html();
+			return html != null && pattern.matcher(html).find();
+		});
+		this.criteria.add("HTML matching <" + regex + ">");
 		return this;
 	}
 
@@ -125,12 +188,84 @@ public class MessageAwaiter {
 	 * found within the timeout
 	 */
 	public MessageAssert isPresent() {
-		Message found = Awaitility.await()
-			.atMost(timeout)
-			.pollInterval(pollInterval)
-			.until(this::findMatchingMessage, Optional::isPresent)
-			.orElseThrow();
-		return new MessageAssert(found);
+		long startNanos = System.nanoTime();
+		boolean found = false;
+		MessageCursor cursor = new MessageCursor(client);
+		try {
+			Message message = Awaitility.await()
+				.atMost(timeout)
+				.pollInterval(pollInterval)
+				.until(() -> findMatchingMessage(cursor), Optional::isPresent)
+				.orElseThrow();
+			found = true;
+			return new MessageAssert(message);
+		}
+		finally {
+			awaitCompleted(found, startNanos);
+		}
+	}
+
+	/**
+	 * Waits for a matching message without blocking the calling thread.
+	 * <p>
+	 * Polling runs on a shared pool of daemon threads, so many expectations can wait
+	 * concurrently and the total wait is that of the slowest one. The awaiter must not be
+	 * used from other threads until the returned future has completed.
+	 * @return a future completed with a MessageAssert for the found message, or completed
+	 * exceptionally with a {@link ConditionTimeoutException} if no matching message is
+	 * found within the timeout
+	 */
+	public CompletableFuture<MessageAssert> isPresentAsync() {
+		return isPresentAsync(DefaultScheduler.INSTANCE);
+	}
+
+	/**
+	 * Waits for a matching message without blocking the calling thread, polling on the
+	 * given scheduler.
+	 * @param scheduler the scheduler to run the polls on
+	 * @return a future completed with a MessageAssert for the found message, or completed
+	 * exceptionally with a {@link ConditionTimeoutException} if no matching message is
+	 * found within the timeout
+	 * @see #isPresentAsync()
+	 */
+	public CompletableFuture<MessageAssert> isPresentAsync(ScheduledExecutorService scheduler) {
+		CompletableFuture<MessageAssert> future = new CompletableFuture<>();
+		long startNanos = System.nanoTime();
+		long deadline = startNanos + timeout.toNanos();
+		future.whenComplete((result, e) -> awaitCompleted(e == null, startNanos));
+		MessageCursor cursor = new MessageCursor(client);
+		try {
+			scheduler.execute(() -> pollAsync(future, cursor, scheduler, deadline));
+		}
+		catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	private void pollAsync(CompletableFuture<MessageAssert> future, MessageCursor cursor,
+			ScheduledExecutorService scheduler, long deadline) {
+		if (future.isDone()) {
+			return;
+		}
+		try {
+			Optional<Message> found = findMatchingMessage(cursor);
+			if (found.isPresent()) {
+				future.complete(new MessageAssert(found.get()));
+				return;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				future.completeExceptionally(
+						new ConditionTimeoutException("No matching message was found within " + timeout + ": " + this));
+				return;
+			}
+			scheduler.schedule(() -> pollAsync(future, cursor, scheduler, deadline),
+					Math.min(pollInterval.toNanos(), remaining), TimeUnit.NANOSECONDS);
+		}
+		catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
 	}
 
 	/**
@@ -138,15 +273,94 @@ public class MessageAwaiter {
 	 * @throws AssertionError if a matching message is found
 	 */
 	public void isAbsent() {
-		Optional<Message> found = findMatchingMessage();
+		Optional<Message> found = findMatchingMessage(new MessageCursor(client));
 		if (found.isPresent()) {
 			throw new AssertionError(
 					"Expected no matching message but found one with subject: " + found.get().subject());
 		}
 	}
 
-	private Optional<Message> findMatchingMessage() {
-		return client.getAllMessages().stream().filter(predicate).findFirst();
+	/**
+	 * Asserts that no matching message exists and none arrives during the given window.
+	 * <p>
+	 * Only newly arrived messages are checked on each poll, and the assertion fails as
+	 * soon as a matching message appears rather than at the end of the window.
+	 * @param window how long the mailbox must stay free of matching messages
+	 * @throws AssertionError if a matching message is found within the window
+	 * @throws MailpitException if the thread is interrupted while waiting
+	 */
+	@SuppressWarnings("java:S2925")
+	public void isAbsentFor(Duration window) {
+		long startNanos = System.nanoTime();
+		long deadline = startNanos + window.toNanos();
+		MessageCursor cursor = new MessageCursor(client);
+		while (true) {
+			Optional<Message> found = findMatchingMessage(cursor);
+			if (found.isPresent()) {
+				awaitCompleted(true, startNanos);
+				throw new AssertionError("Expected no matching message within " + window
+						+ " but found one with subject: " + found.get().subject());
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				awaitCompleted(false, startNanos);
+				return;
+			}
+			try {
+				TimeUnit.NANOSECONDS.sleep(Math.min(pollInterval.toNanos(), remaining));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MailpitException("Interrupted while asserting absence of " + this, e);
+			}
+		}
+	}
+
+	private void awaitCompleted(boolean found, long startNanos) {
+		client.getObserver().awaitCompleted(found, Duration.ofNanos(System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Returns the first matching message among those the cursor has not returned before.
+	 * The first call on a new cursor examines the whole mailbox.
+	 */
+	private Optional<Message> findMatchingMessage(MessageCursor cursor) {
+		return cursor.next().stream().filter(this::matches).findFirst();
+	}
+
+	/**
+	 * Returns a description of the expected message built from the configured filters.
+	 * @return the description, e.g.
+	 * {@code message [subject <Welcome>, to <user@example.com>]}
+	 */
+	@Override
+	public String toString() {
+		return criteria.isEmpty() ? "any message" : "message " + criteria;
+	}
+
+	boolean matches(Message message) {
+		return matches(message, new MessageBodies(client, message));
+	}
+
+	/**
+	 * Tests a message, downloading its bodies through the given lookup so that they can
+	 * be shared with other expectations testing the same message.
+	 */
+	boolean matches(Message message, MessageBodies bodies) {
+		return predicate.test(message) && bodyPredicate.test(bodies);
+	}
+
+	private static final class DefaultScheduler {
+
+		private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+		private static final ScheduledExecutorService INSTANCE = Executors
+			.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+				Thread thread = new Thread(runnable, "mailpit-awaiter-" + THREAD_COUNT.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
 	}
 
 }
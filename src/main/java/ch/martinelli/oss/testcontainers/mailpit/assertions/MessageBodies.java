@@ -0,0 +1,39 @@
+package ch.martinelli.oss.testcontainers.mailpit.assertions;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+
+/**
+ * The bodies of one message, downloaded on first use and shared by all body filters that
+ * evaluate the message, including those of different expectations.
+ */
+final class MessageBodies {
+
+	private final MailpitClient client;
+
+	private final Message message;
+
+	private String plain;
+
+	private String html;
+
+	MessageBodies(MailpitClient client, Message message) {
+		this.client = client;
+		this.message = message;
+	}
+
+	String plain() {
+		if (plain == null) {
+			plain = client.getMessagePlain(message.id());
+		}
+		return plain;
+	}
+
+	String html() {
+		if (html == null) {
+			html = client.getMessageHtml(message.id());
+		}
+		return html;
+	}
+
+}
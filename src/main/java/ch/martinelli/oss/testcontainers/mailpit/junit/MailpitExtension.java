@@ -0,0 +1,103 @@
+package ch.martinelli.oss.testcontainers.mailpit.junit;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.NamespacedMailpitClient;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JUnit Jupiter extension behind {@link MailpitTest}.
+ * <p>
+ * The container is started once per JVM and image, on first use, and stored in the root
+ * extension context, which stops it when the test run ends. Each test gets its own
+ * {@link NamespacedMailpitClient}, created on first use and cached for the test, whose
+ * messages are deleted after the test. No state is shared between tests apart from the
+ * container, so tests can run concurrently.
+ */
+public class MailpitExtension implements ParameterResolver, AfterEachCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+		.create(MailpitExtension.class);
+
+	private static final String CLIENT_KEY = "client";
+
+	private static final AtomicLong NAMESPACE_COUNTER = new AtomicLong();
+
+	@Override
+	public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		Class<?> type = parameterContext.getParameter().getType();
+		return type == MailpitContainer.class || type == MailpitClient.class || type == NamespacedMailpitClient.class;
+	}
+
+	@Override
+	public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		Class<?> type = parameterContext.getParameter().getType();
+		if (type == MailpitContainer.class) {
+			return getContainer(extensionContext);
+		}
+		if (type == MailpitClient.class || type == NamespacedMailpitClient.class) {
+			// A namespace is tied to a single test
+			if (extensionContext.getTestMethod().isEmpty()) {
+				throw new ParameterResolutionException("A " + type.getSimpleName()
+						+ " can only be injected into test methods and @BeforeEach/@AfterEach methods, not into "
+						+ parameterContext.getDeclaringExecutable().getName()
+						+ "; use a MailpitContainer parameter for class-level lifecycle methods");
+			}
+			return getClient(extensionContext);
+		}
+		throw new ParameterResolutionException("Unsupported parameter type: " + type.getName());
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		NamespacedMailpitClient client = context.getStore(NAMESPACE).get(CLIENT_KEY, NamespacedMailpitClient.class);
+		if (client != null) {
+			client.deleteAllMessages();
+		}
+	}
+
+	/**
+	 * Returns the shared container for the image of the test class, starting it if
+	 * necessary.
+	 * @param context the extension context
+	 * @return the running container
+	 */
+	public static MailpitContainer getContainer(ExtensionContext context) {
+		String image = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MailpitTest.class)
+			.map(MailpitTest::image)
+			.orElse("axllent/mailpit:latest");
+		return context.getRoot().getStore(NAMESPACE).computeIfAbsent("container:" + image, key -> {
+			MailpitContainer container = new MailpitContainer(image);
+			container.start();
+			return container;
+		}, MailpitContainer.class);
+	}
+
+	/**
+	 * Returns the namespaced client of the current test.
+	 * @param context the extension context of a test method
+	 * @return the client
+	 */
+	public static NamespacedMailpitClient getClient(ExtensionContext context) {
+		MailpitContainer container = getContainer(context);
+		return context.getStore(NAMESPACE)
+			.computeIfAbsent(CLIENT_KEY, key -> container.getClient().namespace(namespaceName(context)),
+					NamespacedMailpitClient.class);
+	}
+
+	private static String namespaceName(ExtensionContext context) {
+		String name = context.getRequiredTestMethod().getName().replaceAll("[^A-Za-z0-9._-]", "");
+		if (name.length() > 40) {
+			name = name.substring(0, 40);
+		}
+		return name + "-" + NAMESPACE_COUNTER.incrementAndGet();
+	}
+
+}
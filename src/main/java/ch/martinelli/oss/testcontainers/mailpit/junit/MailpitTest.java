@@ -0,0 +1,58 @@
+package ch.martinelli.oss.testcontainers.mailpit.junit;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated test class with a Mailpit container shared by all tests in the JVM
+ * and an isolated mailbox per test.
+ * <p>
+ * Methods can declare parameters of these types:
+ * <ul>
+ * <li>{@link ch.martinelli.oss.testcontainers.mailpit.MailpitContainer} - the shared
+ * container, in test methods and all lifecycle methods</li>
+ * <li>{@link ch.martinelli.oss.testcontainers.mailpit.MailpitClient} or
+ * {@link ch.martinelli.oss.testcontainers.mailpit.NamespacedMailpitClient} - a client
+ * scoped to a namespace of its own for the current test, in test methods and
+ * {@code @BeforeEach}/{@code @AfterEach} methods only; {@code @BeforeAll} and
+ * {@code @AfterAll} methods are rejected with a
+ * {@link org.junit.jupiter.api.extension.ParameterResolutionException}</li>
+ * </ul>
+ * The messages of the namespace are deleted after each test. Because every test has its
+ * own namespace, tests can run in parallel against the same container.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;MailpitTest
+ * class WelcomeMailTest {
+ *     &#64;Test
+ *     void sendsWelcomeMail(MailpitContainer mailpit, NamespacedMailpitClient client) {
+ *         mailService.sendWelcome(client.address("alice@example.com"));
+ *         assertThat(mailpit).usingClient(client).awaitMessage().withSubject("Welcome").isPresent();
+ *     }
+ * }
+ * </pre>
+ *
+ * @see MailpitExtension
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(MailpitExtension.class)
+public @interface MailpitTest {
+
+	/**
+	 * The Mailpit Docker image. Test classes using the same image share a container.
+	 * @return the image name
+	 */
+	String image() default "axllent/mailpit:latest";
+
+}
@@ -0,0 +1,53 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Result of a {@link SmtpLoadGenerator} run.
+ *
+ * @param sent the number of messages accepted by the server
+ * @param failed the number of messages that could not be sent
+ * @param elapsed the wall-clock time of the run
+ * @param throughput the achieved rate of accepted messages per second
+ * @param p50 the median submission latency
+ * @param p90 the 90th percentile submission latency
+ * @param p99 the 99th percentile submission latency
+ * @param max the maximum submission latency
+ */
+public record LoadReport(int sent, int failed, Duration elapsed, double throughput, Duration p50, Duration p90,
+		Duration p99, Duration max) {
+
+	/**
+	 * Creates a report from the latencies of the successfully sent messages.
+	 * @param latencyNanos the submission latency of each sent message in nanoseconds
+	 * @param failed the number of failed messages
+	 * @param elapsed the wall-clock time of the run
+	 * @return the report
+	 */
+	static LoadReport of(long[] latencyNanos, int failed, Duration elapsed) {
+		long[] sorted = latencyNanos.clone();
+		Arrays.sort(sorted);
+		double seconds = elapsed.toNanos() / 1_000_000_000.0;
+		double throughput = seconds > 0 ? sorted.length / seconds : 0;
+		return new LoadReport(sorted.length, failed, elapsed, throughput, percentile(sorted, 0.50),
+				percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+	}
+
+	private static Duration percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return Duration.ZERO;
+		}
+		int rank = (int) Math.ceil(percentile * sorted.length);
+		return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"sent=%d failed=%d elapsed=%dms throughput=%.1f msg/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+				sent, failed, elapsed.toMillis(), throughput, p50.toNanos() / 1e6, p90.toNanos() / 1e6,
+				p99.toNanos() / 1e6, max.toNanos() / 1e6);
+	}
+
+}
@@ -0,0 +1,266 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitException;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A persistent SMTP session that can submit any number of messages.
+ * <p>
+ * Instances are not thread-safe.
+ */
+class SmtpConnection implements AutoCloseable {
+
+	private final Socket socket;
+
+	private final BufferedReader reader;
+
+	private final OutputStream writer;
+
+	private final Set<String> extensions = new HashSet<>();
+
+	SmtpConnection(String host, int port, Duration timeout) throws IOException {
+		this.socket = new Socket();
+		this.socket.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+		this.socket.setSoTimeout((int) timeout.toMillis());
+		this.socket.setTcpNoDelay(true);
+		this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		this.writer = new BufferedOutputStream(socket.getOutputStream());
+
+		expect(readReply(), 220, "greeting");
+		write("EHLO localhost\r\n");
+		flush();
+		Reply ehlo = expect(readReply(), 250, "EHLO");
+		for (String line : ehlo.lines()) {
+			extensions.add(line.split(" ", 2)[0].toUpperCase(Locale.ROOT));
+		}
+	}
+
+	/**
+	 * Returns whether the server advertised the given ESMTP extension.
+	 * @param extension the extension keyword, e.g. {@code PIPELINING}
+	 * @return true if the extension is supported
+	 */
+	boolean supports(String extension) {
+		return extensions.contains(extension.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Submits a message within this session.
+	 * <p>
+	 * If the server supports ESMTP {@code PIPELINING} (RFC 2920), the envelope commands
+	 * are sent in a single batch, so a message costs two round trips regardless of the
+	 * number of recipients.
+	 * @param message the message to submit
+	 * @throws IOException if the connection fails
+	 * @throws MailpitException if the server rejects the message
+	 */
+	void send(SmtpMessage message) throws IOException {
+		if (supports("PIPELINING")) {
+			sendPipelined(message);
+		}
+		else {
+			sendSequentially(message);
+		}
+	}
+
+	private void sendSequentially(SmtpMessage message) throws IOException {
+		write("MAIL FROM:<" + message.from() + ">\r\n");
+		flush();
+		expect(readReply(), 250, "MAIL FROM");
+		for (String recipient : message.to()) {
+			write("RCPT TO:<" + recipient + ">\r\n");
+			flush();
+			expect(readReply(), 250, "RCPT TO");
+		}
+		write("DATA\r\n");
+		flush();
+		expect(readReply(), 354, "DATA");
+		writeContent(message.content());
+		flush();
+		expect(readReply(), 250, "end of data");
+	}
+
+	private void sendPipelined(SmtpMessage message) throws IOException {
+		StringBuilder envelope = new StringBuilder("MAIL FROM:<").append(message.from()).append(">\r\n");
+		for (String recipient : message.to()) {
+			envelope.append("RCPT TO:<").append(recipient).append(">\r\n");
+		}
+		envelope.append("DATA\r\n");
+		write(envelope.toString());
+		flush();
+
+		Reply mailReply = readReply();
+		List<Reply> recipientReplies = new ArrayList<>();
+		for (int i = 0; i < message.to().size(); i++) {
+			recipientReplies.add(readReply());
+		}
+		Reply dataReply = readReply();
+		List<String> rejectedRecipients = new ArrayList<>();
+		for (int i = 0; i < recipientReplies.size(); i++) {
+			if (!isPositive(recipientReplies.get(i))) {
+				rejectedRecipients.add(message.to().get(i) + " (" + recipientReplies.get(i) + ")");
+			}
+		}
+		boolean rejected = !isPositive(mailReply) || !rejectedRecipients.isEmpty();
+		if (rejected && dataReply.code() == 354) {
+			// The server accepted DATA for the remaining recipients. Ending the
+			// data would deliver a message, and RSET is not recognized within
+			// DATA, so the only way to abort the transaction is to drop the
+			// connection.
+			socket.close();
+		}
+		else if (dataReply.code() != 354) {
+			write("RSET\r\n");
+			flush();
+			readReply();
+		}
+		expect(mailReply, 250, "MAIL FROM");
+		if (!rejectedRecipients.isEmpty()) {
+			throw new MailpitException("SMTP server rejected recipients: " + String.join(", ", rejectedRecipients));
+		}
+		expect(dataReply, 354, "DATA");
+
+		writeContent(message.content());
+		flush();
+		expect(readReply(), 250, "end of data");
+	}
+
+	/**
+	 * Checks with an SMTP {@code NOOP} whether the server still accepts commands on this
+	 * connection, for example after it has been idle.
+	 * @return true if the connection is usable
+	 */
+	boolean isAlive() {
+		try {
+			write("NOOP\r\n");
+			flush();
+			return readReply().code() == 250;
+		}
+		catch (IOException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			write("QUIT\r\n");
+			flush();
+			readReply();
+		}
+		catch (IOException | RuntimeException e) {
+			// the session ends anyway
+		}
+		finally {
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				// nothing left to release
+			}
+		}
+	}
+
+	void write(String text) throws IOException {
+		writer.write(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	void flush() throws IOException {
+		writer.flush();
+	}
+
+	/**
+	 * Writes the message content with normalized line endings and dot-stuffing, followed
+	 * by the end-of-data marker.
+	 */
+	void writeContent(String content) throws IOException {
+		String[] lines = content.split("\r?\n", -1);
+		// Content ending with a line break yields a trailing empty element, not a line
+		int lineCount = lines[lines.length - 1].isEmpty() ? lines.length - 1 : lines.length;
+		StringBuilder data = new StringBuilder(content.length() + lineCount + 8);
+		for (int i = 0; i < lineCount; i++) {
+			String line = lines[i];
+			if (line.startsWith(".")) {
+				data.append('.');
+			}
+			data.append(line).append("\r\n");
+		}
+		data.append(".\r\n");
+		write(data.toString());
+	}
+
+	Reply readReply() throws IOException {
+		Reply.Builder builder = new Reply.Builder();
+		while (true) {
+			String line = reader.readLine();
+			if (line == null) {
+				throw new IOException("Connection closed by SMTP server");
+			}
+			if (line.length() < 3) {
+				throw new MailpitException("Malformed SMTP reply: " + line);
+			}
+			builder.add(line);
+			if (line.length() == 3 || line.charAt(3) != '-') {
+				return builder.build();
+			}
+		}
+	}
+
+	private static boolean isPositive(Reply reply) {
+		return reply.code() == 250 || reply.code() == 251;
+	}
+
+	static Reply expect(Reply reply, int expectedCode, String command) {
+		if (reply.code() != expectedCode && !(expectedCode == 250 && isPositive(reply))) {
+			throw new MailpitException("Unexpected SMTP reply to " + command + ": " + reply);
+		}
+		return reply;
+	}
+
+	/**
+	 * A possibly multi-line SMTP reply.
+	 *
+	 * @param code the reply code
+	 * @param lines the text of each line, without the reply code
+	 */
+	record Reply(int code, List<String> lines) {
+
+		@Override
+		public String toString() {
+			return code + " " + String.join(" ", lines);
+		}
+
+		private static final class Builder {
+
+			private final List<String> lines = new ArrayList<>();
+
+			private int code;
+
+			void add(String line) {
+				code = Integer.parseInt(line.substring(0, 3));
+				lines.add(line.length() > 4 ? line.substring(4) : "");
+			}
+
+			Reply build() {
+				return new Reply(code, List.copyOf(lines));
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,212 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Generates SMTP load against Mailpit for throughput testing.
+ * <p>
+ * Messages are sent from several threads, each keeping one persistent SMTP connection
+ * open for the whole run. Optionally, sending is paced to a target rate.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * LoadReport report = new SmtpLoadGenerator(mailpit)
+ *     .withConnections(8)
+ *     .withMessageCount(10_000)
+ *     .withRate(500)
+ *     .run();
+ * }</pre>
+ */
+@SuppressWarnings("java:S2142")
+public class SmtpLoadGenerator {
+
+	private final String host;
+
+	private final int port;
+
+	private int connections = 4;
+
+	private int messageCount = 1000;
+
+	private double rate;
+
+	private Duration timeout = Duration.ofSeconds(30);
+
+	private IntFunction<SmtpMessage> messageFactory = sized(1024);
+
+	public SmtpLoadGenerator(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	public SmtpLoadGenerator(MailpitContainer container) {
+		this(container.getSmtpHost(), container.getSmtpPort());
+	}
+
+	/**
+	 * Configures the number of concurrent SMTP connections, each used by its own thread.
+	 * @param connections the number of connections
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withConnections(int connections) {
+		this.connections = connections;
+		return this;
+	}
+
+	/**
+	 * Configures the total number of messages to send.
+	 * @param messageCount the number of messages
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withMessageCount(int messageCount) {
+		this.messageCount = messageCount;
+		return this;
+	}
+
+	/**
+	 * Configures the target rate across all connections. With a target rate, latencies
+	 * are measured from the time a message was due rather than from when it was actually
+	 * sent, so that delays caused by Mailpit falling behind are included.
+	 * @param messagesPerSecond the target rate, or zero to send as fast as possible
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withRate(double messagesPerSecond) {
+		this.rate = messagesPerSecond;
+		return this;
+	}
+
+	/**
+	 * Configures the size of the synthetic message bodies.
+	 * @param bodySize the body size in bytes
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withMessageSize(int bodySize) {
+		this.messageFactory = sized(bodySize);
+		return this;
+	}
+
+	/**
+	 * Configures a factory creating the message with the given sequence number, replacing
+	 * the synthetic messages.
+	 * @param messageFactory the message factory
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withMessages(IntFunction<SmtpMessage> messageFactory) {
+		this.messageFactory = messageFactory;
+		return this;
+	}
+
+	/**
+	 * Configures the connect and read timeout of the SMTP connections.
+	 * @param timeout the timeout
+	 * @return this generator
+	 */
+	public SmtpLoadGenerator withTimeout(Duration timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Sends the messages and waits until all have been sent or have failed.
+	 * @return the achieved throughput and latency percentiles
+	 * @throws MailpitException if the run is interrupted
+	 */
+	public LoadReport run() {
+		long[] latencies = new long[messageCount];
+		Arrays.fill(latencies, -1);
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(connections);
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < connections; i++) {
+				workers.add(executor.submit(() -> sendMessages(start, next, latencies, failed)));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailpitException("Load generation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			throw new MailpitException("Load generation failed", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+		return LoadReport.of(Arrays.stream(latencies).filter(latency -> latency >= 0).toArray(), failed.get(), elapsed);
+	}
+
+	private void sendMessages(long start, AtomicInteger next, long[] latencies, AtomicInteger failed) {
+		SmtpConnection connection = null;
+		try {
+			int index;
+			while ((index = next.getAndIncrement()) < messageCount) {
+				long scheduledStart;
+				if (rate > 0) {
+					scheduledStart = start + (long) (index * 1_000_000_000.0 / rate);
+					LockSupport.parkNanos(scheduledStart - System.nanoTime());
+				}
+				else {
+					scheduledStart = System.nanoTime();
+				}
+				SmtpMessage message = messageFactory.apply(index);
+				try {
+					if (connection == null) {
+						connection = new SmtpConnection(host, port, timeout);
+					}
+					connection.send(message);
+					latencies[index] = System.nanoTime() - scheduledStart;
+				}
+				catch (IOException | MailpitException e) {
+					failed.incrementAndGet();
+					if (connection != null) {
+						connection.close();
+						connection = null;
+					}
+				}
+			}
+		}
+		finally {
+			if (connection != null) {
+				connection.close();
+			}
+		}
+	}
+
+	private static IntFunction<SmtpMessage> sized(int bodySize) {
+		// Keep lines well below the SMTP line length limit of 1000 characters
+		StringBuilder text = new StringBuilder(bodySize);
+		while (text.length() < bodySize) {
+			int lineLength = Math.min(76, bodySize - text.length());
+			text.append("x".repeat(lineLength));
+			if (text.length() < bodySize) {
+				text.append("\r\n");
+			}
+		}
+		String body = text.toString();
+		return index -> SmtpMessage.of("load@localhost", "recipient-" + index + "@localhost", "Load test " + index,
+				body);
+	}
+
+}
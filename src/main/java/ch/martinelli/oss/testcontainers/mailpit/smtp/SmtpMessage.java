@@ -0,0 +1,33 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An email to be submitted over SMTP.
+ *
+ * @param from the envelope sender address
+ * @param to the envelope recipient addresses
+ * @param content the complete message (headers and body) in RFC 5322 format
+ */
+public record SmtpMessage(String from, List<String> to, String content) {
+
+	/**
+	 * Creates a plain text message with the usual headers.
+	 * @param from the sender address
+	 * @param to the recipient address
+	 * @param subject the subject
+	 * @param body the plain text body
+	 * @return the message
+	 */
+	public static SmtpMessage of(String from, String to, String subject, String body) {
+		String content = "From: " + from + "\r\n" + "To: " + to + "\r\n" + "Subject: " + subject + "\r\n" + "Date: "
+				+ DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()) + "\r\n" + "Message-ID: <"
+				+ UUID.randomUUID() + "@localhost>\r\n" + "MIME-Version: 1.0\r\n"
+				+ "Content-Type: text/plain; charset=UTF-8\r\n" + "Content-Transfer-Encoding: 8bit\r\n" + "\r\n" + body;
+		return new SmtpMessage(from, List.of(to), content);
+	}
+
+}
@@ -0,0 +1,153 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fast SMTP submission of fixture messages.
+ * <p>
+ * The submitter keeps its SMTP connections open between calls and sends messages over
+ * several connections in parallel. An idle connection is checked with an SMTP
+ * {@code NOOP} before it is reused and replaced if the server has closed it. Envelope
+ * commands are pipelined when the server supports ESMTP {@code PIPELINING}, which Mailpit
+ * does. This makes seeding a mailbox with thousands of messages much faster than opening
+ * a session per message.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ * try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+ *     submitter.submit(IntStream.range(0, 10_000)
+ *         .mapToObj(i -> SmtpMessage.of("sender@example.com", "user" + i + "@example.com", "Fixture " + i, "Body"))
+ *         .toList());
+ * }
+ * }</pre>
+ */
+@SuppressWarnings("java:S2142")
+public class SmtpSubmitter implements AutoCloseable {
+
+	private static final int DEFAULT_CONNECTIONS = 4;
+
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+	private final String host;
+
+	private final int port;
+
+	private final int connections;
+
+	private final Duration timeout;
+
+	private final Queue<SmtpConnection> idleConnections = new ConcurrentLinkedQueue<>();
+
+	private final ExecutorService executor;
+
+	public SmtpSubmitter(String host, int port, int connections, Duration timeout) {
+		this.host = host;
+		this.port = port;
+		this.connections = connections;
+		this.timeout = timeout;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(connections, runnable -> {
+			Thread thread = new Thread(runnable, "mailpit-smtp-submitter-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public SmtpSubmitter(MailpitContainer container) {
+		this(container.getSmtpHost(), container.getSmtpPort(), DEFAULT_CONNECTIONS, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Submits a single message.
+	 * @param message the message to submit
+	 * @throws MailpitException if the message could not be submitted
+	 */
+	public void submit(SmtpMessage message) {
+		submit(List.of(message));
+	}
+
+	/**
+	 * Submits messages in parallel over the submitter's connections and waits until all
+	 * have been accepted.
+	 * @param messages the messages to submit
+	 * @throws MailpitException if a message could not be submitted
+	 */
+	public void submit(List<SmtpMessage> messages) {
+		AtomicInteger next = new AtomicInteger();
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < Math.min(connections, messages.size()); i++) {
+			workers.add(executor.submit(() -> {
+				submitNext(messages, next);
+				return null;
+			}));
+		}
+		MailpitException failure = null;
+		for (Future<?> worker : workers) {
+			try {
+				worker.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MailpitException("Interrupted while submitting messages", e);
+			}
+			catch (ExecutionException e) {
+				if (failure == null) {
+					failure = new MailpitException("Failed to submit messages", e.getCause());
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Closes all open SMTP connections.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		SmtpConnection connection;
+		while ((connection = idleConnections.poll()) != null) {
+			connection.close();
+		}
+	}
+
+	private void submitNext(List<SmtpMessage> messages, AtomicInteger next) throws IOException {
+		SmtpConnection connection = idleConnections.poll();
+		// Mailpit may have closed the connection while it was idle
+		while (connection != null && !connection.isAlive()) {
+			connection.close();
+			connection = idleConnections.poll();
+		}
+		if (connection == null) {
+			connection = new SmtpConnection(host, port, timeout);
+		}
+		try {
+			int index;
+			while ((index = next.getAndIncrement()) < messages.size()) {
+				connection.send(messages.get(index));
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			connection.close();
+			throw e;
+		}
+		idleConnections.add(connection);
+	}
+
+}
@@ -0,0 +1,164 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncJavaMailSenderTest {
+
+	private final RecordingMailSender delegate = new RecordingMailSender();
+
+	@Test
+	void shouldSendQueuedMessagesInBatches() {
+		try (AsyncJavaMailSender mailSender = new AsyncJavaMailSender(delegate, 10)) {
+			delegate.blockSends();
+			for (int i = 0; i < 25; i++) {
+				mailSender.send(message("Message " + i));
+			}
+			assertThat(mailSender.getPendingCount()).isEqualTo(25);
+
+			delegate.releaseSends();
+			mailSender.flush();
+
+			assertThat(mailSender.getPendingCount()).isZero();
+			assertThat(delegate.batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+			assertThat(delegate.batchSizes).allMatch(size -> size <= 10);
+			assertThat(delegate.batchSizes.size()).isLessThan(25);
+		}
+	}
+
+	@Test
+	void shouldReportFailuresOnFlush() {
+		try (AsyncJavaMailSender mailSender = new AsyncJavaMailSender(delegate, 10)) {
+			mailSender.send(message("fail"));
+			mailSender.send(message("ok"));
+
+			assertThatThrownBy(mailSender::flush).isInstanceOf(MailSendException.class)
+				.satisfies(e -> assertThat(((MailSendException) e).getFailedMessages()).hasSize(1));
+			mailSender.flush();
+		}
+	}
+
+	@Test
+	void shouldReturnFalseWhenNotDrainedInTime() {
+		try (AsyncJavaMailSender mailSender = new AsyncJavaMailSender(delegate, 10)) {
+			delegate.blockSends();
+			mailSender.send(message("Blocked"));
+
+			assertThat(mailSender.awaitDrain(Duration.ofMillis(50))).isFalse();
+
+			delegate.releaseSends();
+			assertThat(mailSender.awaitDrain(Duration.ofSeconds(5))).isTrue();
+		}
+	}
+
+	@Test
+	void shouldSendRemainingMessagesOnClose() {
+		AsyncJavaMailSender mailSender = new AsyncJavaMailSender(delegate, 10);
+		mailSender.send(message("Before close"));
+
+		mailSender.close();
+
+		assertThat(delegate.batchSizes).containsExactly(1);
+		SimpleMailMessage message = message("After close");
+		assertThatThrownBy(() -> mailSender.send(message)).isInstanceOf(MailSendException.class);
+	}
+
+	@Test
+	@Timeout(10)
+	void shouldFailInsteadOfWaitingWhenWorkerDies() {
+		try (AsyncJavaMailSender mailSender = new AsyncJavaMailSender(delegate, 10)) {
+			mailSender.send(message("crash"));
+
+			assertThatThrownBy(mailSender::flush).isInstanceOf(MailSendException.class)
+				.hasMessageContaining("thread died")
+				.hasCauseInstanceOf(LinkageError.class);
+			SimpleMailMessage message = message("After crash");
+			assertThatThrownBy(() -> mailSender.send(message)).isInstanceOf(MailSendException.class);
+		}
+	}
+
+	@Test
+	void shouldRejectInvalidBatchSize() {
+		assertThatThrownBy(() -> new AsyncJavaMailSender(delegate, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static SimpleMailMessage message(String subject) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom("sender@example.com");
+		message.setTo("recipient@example.com");
+		message.setSubject(subject);
+		message.setText("Body");
+		return message;
+	}
+
+	private static class RecordingMailSender implements JavaMailSender {
+
+		private final Session session = Session.getInstance(new Properties());
+
+		private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+		private volatile CountDownLatch gate = new CountDownLatch(0);
+
+		void blockSends() {
+			gate = new CountDownLatch(1);
+		}
+
+		void releaseSends() {
+			gate.countDown();
+		}
+
+		@Override
+		public MimeMessage createMimeMessage() {
+			return new MimeMessage(session);
+		}
+
+		@Override
+		public MimeMessage createMimeMessage(InputStream contentStream) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void send(MimeMessage... mimeMessages) {
+			try {
+				gate.await(10, TimeUnit.SECONDS);
+				batchSizes.add(mimeMessages.length);
+				for (MimeMessage mimeMessage : mimeMessages) {
+					if ("crash".equals(mimeMessage.getSubject())) {
+						throw new LinkageError("Crashed");
+					}
+					if ("fail".equals(mimeMessage.getSubject())) {
+						throw new MailSendException(Map.of(mimeMessage, new MessagingException("Rejected")));
+					}
+				}
+			}
+			catch (InterruptedException | MessagingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void send(SimpleMailMessage... simpleMessages) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -0,0 +1,71 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachedMailpitInfoTest {
+
+	private final StubClient client = new StubClient();
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final CachedMailpitInfo cachedInfo = new CachedMailpitInfo(client, Duration.ofSeconds(10), nanoTime::get);
+
+	@Test
+	void shouldServeInfoFromCacheWithinTimeToLive() {
+		MailpitInfo first = cachedInfo.get();
+		nanoTime.addAndGet(Duration.ofSeconds(9).toNanos());
+
+		assertThat(cachedInfo.get()).isSameAs(first);
+		assertThat(client.fetches).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRefreshInfoAfterTimeToLive() {
+		cachedInfo.get();
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		assertThat(cachedInfo.get().messages()).isEqualTo(2);
+		assertThat(client.fetches).isEqualTo(2);
+	}
+
+	@Test
+	void shouldCacheFailures() {
+		client.failing = true;
+
+		assertThatThrownBy(cachedInfo::get).isInstanceOf(MailpitException.class);
+		assertThatThrownBy(cachedInfo::get).isInstanceOf(MailpitException.class);
+		assertThat(client.fetches).isEqualTo(1);
+
+		client.failing = false;
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertThat(cachedInfo.get()).isNotNull();
+	}
+
+	static class StubClient extends MailpitClient {
+
+		int fetches;
+
+		boolean failing;
+
+		StubClient() {
+			super("http://localhost:0");
+		}
+
+		@Override
+		public MailpitInfo getInfo() {
+			fetches++;
+			if (failing) {
+				throw new MailpitException("Connection refused");
+			}
+			return new MailpitInfo("v1.0.0", "/tmp/mailpit.db", 4096, fetches, 0);
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChaosTriggersTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void shouldSerializeWithMailpitFieldNames() throws JsonProcessingException {
+		ChaosTriggers triggers = ChaosTriggers.none().withSender(451, 10).withRecipient(550, 5);
+
+		JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(triggers));
+
+		assertThat(json.get("Sender").get("ErrorCode").asInt()).isEqualTo(451);
+		assertThat(json.get("Sender").get("Probability").asInt()).isEqualTo(10);
+		assertThat(json.get("Recipient").get("ErrorCode").asInt()).isEqualTo(550);
+		assertThat(json.get("Authentication").get("Probability").asInt()).isZero();
+	}
+
+	@Test
+	void shouldDeserializeMailpitResponse() throws JsonProcessingException {
+		String json = """
+				{"Sender":{"ErrorCode":451,"Probability":0},"Recipient":{"ErrorCode":550,"Probability":25},
+				"Authentication":{"ErrorCode":535,"Probability":0}}
+				""";
+
+		ChaosTriggers triggers = objectMapper.readValue(json, ChaosTriggers.class);
+
+		assertThat(triggers.recipient()).isEqualTo(new ChaosTriggers.Trigger(550, 25));
+		assertThat(triggers.authentication().errorCode()).isEqualTo(535);
+	}
+
+	@Test
+	void shouldFormatSetting() {
+		ChaosTriggers triggers = ChaosTriggers.none().withSender(451, 10).withAuthentication(535, 100);
+
+		assertThat(triggers.toSetting()).isEqualTo("Sender:451:10,Authentication:535:100");
+		assertThat(ChaosTriggers.none().toSetting()).isEmpty();
+	}
+
+	@Test
+	void shouldRejectInvalidProbability() {
+		ChaosTriggers triggers = ChaosTriggers.none();
+		assertThatThrownBy(() -> triggers.withSender(451, 101)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,127 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailpitAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+		.withConfiguration(AutoConfigurations.of(MailpitAutoConfiguration.class));
+
+	@Test
+	void shouldBindProperties() {
+		contextRunner.withPropertyValues("mailpit.host=mail.example.com", "mailpit.port=2525").run(context -> {
+			MailpitConnectionDetails connectionDetails = context.getBean(MailpitConnectionDetails.class);
+			assertThat(connectionDetails.getHost()).isEqualTo("mail.example.com");
+			assertThat(connectionDetails.getPort()).isEqualTo(2525);
+			assertThat(connectionDetails.getHttpUrl()).isEqualTo("http://localhost:8025");
+		});
+	}
+
+	@Test
+	void shouldCreatePlainMailSenderByDefault() {
+		contextRunner.run(context -> assertThat(context.getBean(JavaMailSender.class))
+			.isNotInstanceOf(PooledJavaMailSender.class));
+	}
+
+	@Test
+	void shouldCreatePooledMailSenderWhenEnabled() {
+		contextRunner.withPropertyValues("mailpit.smtp-pool.enabled=true", "mailpit.smtp-pool.max-size=8")
+			.run(context -> {
+				assertThat(context.getBean(JavaMailSender.class)).isInstanceOf(PooledJavaMailSender.class);
+				assertThat(context.getBean(MailpitProperties.class).smtpPool().maxSize()).isEqualTo(8);
+			});
+	}
+
+	@Test
+	void shouldWrapMailSenderWhenAsyncIsEnabled() {
+		contextRunner.withPropertyValues("mailpit.smtp-async.enabled=true")
+			.run(context -> assertThat(context.getBean(JavaMailSender.class)).isInstanceOf(AsyncJavaMailSender.class));
+	}
+
+	@Test
+	void shouldConfigureSmtpTimeoutsAndProperties() {
+		contextRunner
+			.withPropertyValues("mailpit.smtp.connect-timeout=2s", "mailpit.smtp.read-timeout=5s",
+					"mailpit.smtp.properties[mail.smtp.auth]=true")
+			.run(context -> {
+				Properties properties = ((JavaMailSenderImpl) context.getBean(JavaMailSender.class))
+					.getJavaMailProperties();
+				assertThat(properties).containsEntry("mail.smtp.connectiontimeout", "2000")
+					.containsEntry("mail.smtp.timeout", "5000")
+					.containsEntry("mail.smtp.writetimeout", "30000")
+					.containsEntry("mail.smtp.auth", "true");
+			});
+	}
+
+	@Test
+	void shouldConfigureClientRequestTimeout() {
+		contextRunner.withPropertyValues("mailpit.client.request-timeout=3s")
+			.run(context -> assertThat(context.getBean(MailpitClient.class).getRequestTimeout())
+				.isEqualTo(Duration.ofSeconds(3)));
+	}
+
+	@Test
+	void shouldInstrumentClientWhenMeterRegistryIsPresent() {
+		contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new).run(context -> {
+			assertThat(context.getBean(MailpitClient.class).getObserver())
+				.isInstanceOf(MicrometerMailpitClientObserver.class);
+			assertThat(context).hasSingleBean(MailpitMeterBinder.class);
+		});
+	}
+
+	@Test
+	void shouldNotInstrumentClientWithoutMeterRegistry() {
+		contextRunner.run(context -> assertThat(context.getBean(MailpitClient.class).getObserver())
+			.isSameAs(MailpitClientObserver.NOOP));
+	}
+
+	@Test
+	void shouldCreateClientAndMailSenderWithoutMicrometerAndHealth() {
+		contextRunner.withClassLoader(new FilteredClassLoader(MeterRegistry.class, HealthIndicator.class))
+			.run(context -> {
+				assertThat(context).hasNotFailed()
+					.hasSingleBean(MailpitClient.class)
+					.hasSingleBean(JavaMailSender.class)
+					.doesNotHaveBean(MailpitMeterBinder.class)
+					.doesNotHaveBean(MailpitHealthIndicator.class);
+				assertThat(context.getBean(MailpitClient.class).getObserver()).isSameAs(MailpitClientObserver.NOOP);
+			});
+	}
+
+	@Test
+	void shouldCreateClientAndMailSenderWithoutMicrometerAndHealthPackages() {
+		contextRunner.withClassLoader(new FilteredClassLoader("io.micrometer", "org.springframework.boot.health"))
+			.run(context -> assertThat(context).hasNotFailed()
+				.hasSingleBean(MailpitClient.class)
+				.hasSingleBean(JavaMailSender.class)
+				.doesNotHaveBean(MailpitHealthIndicator.class));
+	}
+
+	@Test
+	void shouldRegisterHealthIndicator() {
+		contextRunner.withPropertyValues("mailpit.info-cache-ttl=1m").run(context -> {
+			assertThat(context).hasSingleBean(MailpitHealthIndicator.class);
+			assertThat(context.getBean(MailpitProperties.class).infoCacheTtl()).isEqualTo(Duration.ofMinutes(1));
+		});
+	}
+
+	@Test
+	void shouldNotRegisterHealthIndicatorWhenDisabled() {
+		contextRunner.withPropertyValues("management.health.mailpit.enabled=false")
+			.run(context -> assertThat(context).doesNotHaveBean(MailpitHealthIndicator.class));
+	}
+
+}
@@ -0,0 +1,58 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpMessage;
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpSubmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+class MailpitChaosTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer().withChaosEnabled();
+
+	private final SmtpMessage message = SmtpMessage.of("sender@example.com", "recipient@example.com", "Chaos", "Body");
+
+	@AfterEach
+	void disableTriggers() {
+		mailpit.getClient().setChaosTriggers(ChaosTriggers.none());
+	}
+
+	@Test
+	void shouldRejectSenderWhenTriggerFires() {
+		ChaosTriggers applied = mailpit.getClient().setChaosTriggers(ChaosTriggers.none().withSender(451, 100));
+
+		assertThat(applied.sender()).isEqualTo(new ChaosTriggers.Trigger(451, 100));
+		assertThat(mailpit.getClient().getChaosTriggers().sender().probability()).isEqualTo(100);
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			assertThatThrownBy(() -> submitter.submit(message)).isInstanceOf(MailpitException.class);
+		}
+	}
+
+	@Test
+	void shouldAcceptMessagesWhenTriggersAreDisabled() {
+		mailpit.getClient().deleteAllMessages();
+
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			submitter.submit(message);
+		}
+
+		assertThat(mailpit.getClient().getMessageCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldFailWhenChaosIsNotEnabled() {
+		try (MailpitContainer plain = new MailpitContainer()) {
+			plain.start();
+			MailpitClient client = plain.getClient();
+
+			assertThatThrownBy(client::getChaosTriggers).isInstanceOf(MailpitException.class);
+		}
+	}
+
+}
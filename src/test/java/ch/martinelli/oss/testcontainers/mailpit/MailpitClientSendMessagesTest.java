@@ -0,0 +1,53 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailpitClientSendMessagesTest {
+
+	private final AtomicInteger received = new AtomicInteger();
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/api/v1/send", exchange -> {
+			byte[] body = "invalid".getBytes();
+			received.incrementAndGet();
+			exchange.sendResponseHeaders(400, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void shouldStopSubmittingAfterFirstFailure() {
+		MailpitClient client = new MailpitClient("http://localhost:" + server.getAddress().getPort());
+		List<SendRequest> requests = IntStream.range(0, 20)
+			.mapToObj(i -> SendRequest.of("sender@example.com", "recipient@example.com", "Batch " + i, "Body"))
+			.toList();
+
+		assertThatThrownBy(() -> client.sendMessages(requests, 1)).isInstanceOf(MailpitException.class);
+		assertThat(received).hasValue(1);
+	}
+
+}
@@ -13,6 +13,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -187,6 +188,89 @@ class MailpitClientTest {
 		assertThat(message.recipients()).isNotNull();
 	}
 
+	@Test
+	void shouldGetMessagesPage() throws MessagingException {
+		sendEmail("sender@example.com", "recipient@example.com", "Email 1", "Body 1");
+		sendEmail("sender@example.com", "recipient@example.com", "Email 2", "Body 2");
+		sendEmail("sender@example.com", "recipient@example.com", "Email 3", "Body 3");
+
+		List<Message> firstPage = client.getMessages(0, 2);
+		List<Message> secondPage = client.getMessages(2, 2);
+
+		assertThat(firstPage).extracting(Message::subject).containsExactly("Email 3", "Email 2");
+		assertThat(secondPage).extracting(Message::subject).containsExactly("Email 1");
+		assertThat(client.getMessages(3, 2)).isEmpty();
+	}
+
+	@Test
+	void shouldSendMessageViaApi() {
+		String id = client.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "API Test", "Body")
+			.withHtml("<p>Body</p>")
+			.withTags("fixture"));
+
+		Message message = client.getMessage(id);
+
+		assertThat(message.subject()).isEqualTo("API Test");
+		assertThat(message.from().address()).isEqualTo("sender@example.com");
+		assertThat(message.tags()).contains("fixture");
+		assertThat(client.getMessageHtml(id)).contains("<p>Body</p>");
+	}
+
+	@Test
+	void shouldSendMessageWithAttachmentViaApi() {
+		String id = client
+			.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Attachment", "Body")
+				.withAttachments(SendRequest.Attachment.of("hello.txt", "text/plain", "Hello".getBytes())));
+
+		assertThat(client.getMessage(id).attachmentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldSendMessagesInBatchViaApi() {
+		List<SendRequest> requests = IntStream.range(0, 73)
+			.mapToObj(i -> SendRequest.of("sender@example.com", "recipient@example.com", "Batch " + i, "Body"))
+			.toList();
+
+		List<String> ids = client.sendMessages(requests, 4);
+
+		assertThat(ids).hasSize(73).doesNotHaveDuplicates();
+		assertThat(client.getMessage(ids.get(7)).subject()).isEqualTo("Batch 7");
+		assertThat(client.getMessageCount()).isEqualTo(73);
+	}
+
+	@Test
+	void shouldThrowExceptionWhenSendRequestIsInvalid() {
+		SendRequest invalid = new SendRequest(null, List.of(), null, null, null, "No sender", "Body", null, null, null,
+				null);
+
+		assertThatThrownBy(() -> client.sendMessage(invalid)).isInstanceOf(MailpitException.class)
+			.hasMessageContaining("Failed to send message");
+	}
+
+	@Test
+	void shouldGetInfo() {
+		client.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Info", "Body"));
+
+		MailpitInfo info = client.getInfo();
+
+		assertThat(info.version()).isNotBlank();
+		assertThat(info.messages()).isEqualTo(1);
+		assertThat(info.unread()).isEqualTo(1);
+		assertThat(info.databaseSize()).isPositive();
+	}
+
+	@Test
+	void shouldGetAndDeleteTags() {
+		client.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Tagged", "Body")
+			.withTags("first", "second tag"));
+
+		assertThat(client.getTags()).contains("first", "second tag");
+
+		client.deleteTag("second tag");
+
+		assertThat(client.getTags()).contains("first").doesNotContain("second tag");
+	}
+
 	private void sendEmail(String from, String to, String subject, String body) throws MessagingException {
 		Properties props = new Properties();
 		props.put("mail.smtp.host", mailpit.getSmtpHost());
@@ -0,0 +1,113 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailpitContainerConfigurationTest {
+
+	@Test
+	void shouldConfigureTmpfsDatabase() {
+		try (MailpitContainer mailpit = new MailpitContainer().withTmpfsDatabase()) {
+			assertThat(mailpit.getTmpFsMapping()).containsEntry("/data", "rw");
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_DATABASE", "/data/mailpit.db");
+		}
+	}
+
+	@Test
+	void shouldConfigureTuningOptions() {
+		try (MailpitContainer mailpit = new MailpitContainer().withMaxMessages(0)
+			.withVersionCheckDisabled()
+			.withReverseDnsDisabled()
+			.withCompression(0)) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_MAX_MESSAGES", "0")
+				.containsEntry("MP_DISABLE_VERSION_CHECK", "true")
+				.containsEntry("MP_SMTP_DISABLE_RDNS", "true")
+				.containsEntry("MP_COMPRESSION", "0");
+		}
+	}
+
+	@Test
+	void shouldConfigureChaosTriggers() {
+		try (MailpitContainer mailpit = new MailpitContainer()
+			.withChaosTriggers(ChaosTriggers.none().withRecipient(550, 20))) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_ENABLE_CHAOS", "true")
+				.containsEntry("MP_CHAOS_TRIGGERS", "Recipient:550:20");
+		}
+	}
+
+	@Test
+	void shouldRejectInvalidCompressionLevel() {
+		try (MailpitContainer mailpit = new MailpitContainer()) {
+			assertThatThrownBy(() -> mailpit.withCompression(4)).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	void shouldKeepMailpitDefaultDatabaseLocation() {
+		try (MailpitContainer mailpit = new MailpitContainer()) {
+			assertThat(mailpit.getEnvMap()).doesNotContainKey("MP_DATABASE");
+		}
+	}
+
+	@Test
+	void shouldUseKnownDatabaseLocationForDatabaseSnapshot(@TempDir Path directory) throws IOException {
+		Path snapshot = Files.writeString(directory.resolve("mailpit.db"), "db");
+
+		try (MailpitContainer mailpit = new MailpitContainer().withDatabaseSnapshot(snapshot)) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_DATABASE", "/tmp/mailpit.db");
+		}
+		try (MailpitContainer mailpit = new MailpitContainer().withEnv("MP_DATABASE", "/var/mailpit.db")
+			.withDatabaseSnapshot(snapshot)) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_DATABASE", "/var/mailpit.db");
+		}
+	}
+
+	@Test
+	void shouldRemoveMessageLimitForDatabaseSnapshot(@TempDir Path directory) throws IOException {
+		Path snapshot = Files.writeString(directory.resolve("mailpit.db"), "db");
+
+		try (MailpitContainer mailpit = new MailpitContainer().withDatabaseSnapshot(snapshot)) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_MAX_MESSAGES", "0");
+		}
+	}
+
+	@Test
+	void shouldKeepExplicitMessageLimitForDatabaseSnapshot(@TempDir Path directory) throws IOException {
+		Path snapshot = Files.writeString(directory.resolve("mailpit.db"), "db");
+
+		try (MailpitContainer mailpit = new MailpitContainer().withMaxMessages(1000).withDatabaseSnapshot(snapshot)) {
+			assertThat(mailpit.getEnvMap()).containsEntry("MP_MAX_MESSAGES", "1000");
+		}
+	}
+
+	@Test
+	void shouldRejectDatabaseSnapshotOnTmpfs(@TempDir Path directory) throws IOException {
+		Path snapshot = Files.writeString(directory.resolve("mailpit.db"), "db");
+
+		try (MailpitContainer mailpit = new MailpitContainer().withTmpfsDatabase()) {
+			assertThatThrownBy(() -> mailpit.withDatabaseSnapshot(snapshot)).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("tmpfs");
+		}
+		try (MailpitContainer mailpit = new MailpitContainer().withDatabaseSnapshot(snapshot)) {
+			assertThatThrownBy(mailpit::withTmpfsDatabase).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("tmpfs");
+		}
+	}
+
+	@Test
+	void shouldRejectMissingDatabaseSnapshot(@TempDir Path directory) {
+		try (MailpitContainer mailpit = new MailpitContainer()) {
+			Path missing = directory.resolve("missing.db");
+			assertThatThrownBy(() -> mailpit.withDatabaseSnapshot(missing))
+				.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailpitContainerPoolStartupTest {
+
+	@Test
+	void shouldStopContainersStillStartingWhenOneFails() {
+		List<MailpitContainer> stopped = new CopyOnWriteArrayList<>();
+		CountDownLatch slowStarted = new CountDownLatch(1);
+		AtomicInteger created = new AtomicInteger();
+		MailpitContainerPool pool = new MailpitContainerPool(() -> {
+			boolean slow = created.getAndIncrement() == 0;
+			return new MailpitContainer() {
+				@Override
+				public void start() {
+					if (!slow) {
+						awaitSlowStart(slowStarted);
+						throw new IllegalStateException("Startup failed");
+					}
+					slowStarted.countDown();
+					try {
+						Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				@Override
+				public void stop() {
+					stopped.add(this);
+				}
+			};
+		}, 2, 2);
+
+		assertThatThrownBy(pool::start).isInstanceOf(MailpitException.class)
+			.hasMessageContaining("Failed to start Mailpit container");
+		assertThat(stopped).hasSize(2);
+		assertThat(pool.getSize()).isZero();
+	}
+
+	private static void awaitSlowStart(CountDownLatch slowStarted) {
+		try {
+			slowStarted.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailpitContainerPoolTest {
+
+	static MailpitContainerPool pool;
+
+	@BeforeAll
+	static void startPool() {
+		pool = new MailpitContainerPool(1, 2).withLeaseTimeout(Duration.ofMillis(500)).start();
+	}
+
+	@AfterAll
+	static void closePool() {
+		pool.close();
+	}
+
+	@Test
+	void shouldPrestartMinimumNumberOfContainers() {
+		assertThat(pool.getSize()).isGreaterThanOrEqualTo(1);
+		assertThat(pool.getIdleCount()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void shouldLeaseIsolatedContainersAndResetThemOnReturn() {
+		try (MailpitContainerPool.Lease first = pool.lease(); MailpitContainerPool.Lease second = pool.lease()) {
+			assertThat(first.getContainer().isRunning()).isTrue();
+			assertThat(second.getContainer().getHttpPort()).isNotEqualTo(first.getContainer().getHttpPort());
+
+			first.getClient()
+				.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Pooled", "Body"));
+
+			assertThat(first.getClient().getMessageCount()).isEqualTo(1);
+			assertThat(second.getClient().getMessageCount()).isZero();
+
+			assertThatThrownBy(pool::lease).isInstanceOf(MailpitException.class)
+				.hasMessageContaining("No Mailpit container available");
+		}
+
+		try (MailpitContainerPool.Lease lease = pool.lease()) {
+			assertThat(lease.getClient().getMessageCount()).isZero();
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer.ReadinessCheck;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer.StartupTimings;
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpMessage;
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpSubmitter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailpitContainerReadinessTest {
+
+	@ParameterizedTest
+	@EnumSource(ReadinessCheck.class)
+	void shouldBeUsableWhenReady(ReadinessCheck readinessCheck) {
+		try (MailpitContainer mailpit = new MailpitContainer().withReadinessCheck(readinessCheck)) {
+			mailpit.start();
+
+			try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+				submitter.submit(SmtpMessage.of("sender@example.com", "recipient@example.com", "Ready", "Body"));
+			}
+			assertThat(mailpit.getClient().getMessageCount()).isEqualTo(1);
+
+			StartupTimings timings = mailpit.getStartupTimings();
+			assertThat(timings).isNotNull();
+			assertThat(timings.total()).isPositive();
+			assertThat(timings.ready()).isLessThanOrEqualTo(timings.total());
+		}
+	}
+
+}
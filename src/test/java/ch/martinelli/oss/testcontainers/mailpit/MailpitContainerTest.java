@@ -7,11 +7,14 @@ import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Properties;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -103,6 +106,48 @@ class MailpitContainerTest {
 			.contains("Subject: Source Test");
 	}
 
+	@Test
+	void shouldResetMailbox() throws MessagingException {
+		MailpitClient client = mailpit.getClient();
+		sendEmail("sender@example.com", "recipient@example.com", "Before Reset", "Body");
+		client.sendMessage(
+				SendRequest.of("sender@example.com", "recipient@example.com", "Tagged", "Body").withTags("reset-test"));
+
+		mailpit.reset();
+
+		assertThat(client.getMessageCount()).isZero();
+		assertThat(client.getTags()).isEmpty();
+	}
+
+	@Test
+	void shouldLabelContainer() {
+		assertThat(mailpit.getContainerInfo().getConfig().getLabels()).containsEntry(MailpitContainer.LABEL, "true");
+	}
+
+	@Test
+	void shouldRestoreExportedDatabaseSnapshotLargerThanDefaultLimit(@TempDir Path directory) {
+		Path snapshot = directory.resolve("mailpit.db");
+		try (MailpitContainer seed = new MailpitContainer().withMaxMessages(0)) {
+			seed.start();
+			assertThat(seed.getContainerInfo().getConfig().getEnv()).noneMatch(env -> env.startsWith("MP_DATABASE="));
+			seed.getClient()
+				.sendMessages(IntStream.range(0, 600)
+					.mapToObj(
+							i -> SendRequest.of("sender@example.com", "recipient@example.com", "Fixture " + i, "Body"))
+					.toList(), 8);
+			seed.exportDatabase(snapshot);
+		}
+
+		try (MailpitContainer restored = new MailpitContainer().withDatabaseSnapshot(snapshot)) {
+			restored.start();
+
+			assertThat(restored.getContainerInfo().getConfig().getEnv()).contains("MP_DATABASE=/tmp/mailpit.db",
+					"MP_MAX_MESSAGES=0");
+			assertThat(restored.getClient().getMessageCount()).isEqualTo(600);
+			assertThat(restored.getClient().searchMessages("subject:\"Fixture 599\"")).hasSize(1);
+		}
+	}
+
 	private void sendEmail(String from, String to, String subject, String body) throws MessagingException {
 		Properties props = new Properties();
 		props.put("mail.smtp.host", mailpit.getSmtpHost());
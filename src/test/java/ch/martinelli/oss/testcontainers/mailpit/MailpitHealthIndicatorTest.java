@@ -0,0 +1,34 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailpitHealthIndicatorTest {
+
+	private final CachedMailpitInfoTest.StubClient client = new CachedMailpitInfoTest.StubClient();
+
+	@Test
+	void shouldReportUpWithDetails() {
+		Health health = new MailpitHealthIndicator(new CachedMailpitInfo(client, Duration.ofSeconds(10))).health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).containsEntry("version", "v1.0.0")
+			.containsEntry("messages", 1L)
+			.containsEntry("databaseSize", 4096L);
+	}
+
+	@Test
+	void shouldReportDownWhenMailpitIsUnreachable() {
+		client.failing = true;
+
+		Health health = new MailpitHealthIndicator(new CachedMailpitInfo(client, Duration.ofSeconds(10))).health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+	}
+
+}
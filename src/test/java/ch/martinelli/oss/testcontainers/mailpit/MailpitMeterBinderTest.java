@@ -0,0 +1,34 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailpitMeterBinderTest {
+
+	private final CachedMailpitInfoTest.StubClient client = new CachedMailpitInfoTest.StubClient();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void shouldReportMailboxGauges() {
+		new MailpitMeterBinder(new CachedMailpitInfo(client, Duration.ofMinutes(1))).bindTo(registry);
+
+		assertThat(registry.get(MailpitMeterBinder.MESSAGES).gauge().value()).isEqualTo(1);
+		assertThat(registry.get(MailpitMeterBinder.UNREAD).gauge().value()).isZero();
+		assertThat(registry.get(MailpitMeterBinder.DATABASE_SIZE).gauge().value()).isEqualTo(4096);
+		assertThat(client.fetches).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReportNaNWhenMailpitIsUnreachable() {
+		client.failing = true;
+		new MailpitMeterBinder(new CachedMailpitInfo(client, Duration.ofMinutes(1))).bindTo(registry);
+
+		assertThat(registry.get(MailpitMeterBinder.MESSAGES).gauge().value()).isNaN();
+	}
+
+}
@@ -0,0 +1,74 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailpitRuntimeHintsTest {
+
+	private static final String REFLECT_CONFIG = "/META-INF/native-image/ch.martinelli.oss/testcontainers-mailpit/reflect-config.json";
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	MailpitRuntimeHintsTest() {
+		new MailpitRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void shouldRegisterBindingTypes() {
+		for (Class<?> type : MailpitRuntimeHints.BINDING_TYPES) {
+			assertThat(RuntimeHintsPredicates.reflection()
+				.onType(type)
+				.withMemberCategory(MemberCategory.ACCESS_DECLARED_FIELDS)).accepts(hints);
+		}
+		assertThat(RuntimeHintsPredicates.reflection().onType(Address.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(ChaosTriggers.Trigger.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(SendRequest.Contact.class)).accepts(hints);
+	}
+
+	@Test
+	void shouldRegisterPrivateBindingTypes() {
+		for (String typeName : MailpitRuntimeHints.PRIVATE_BINDING_TYPES) {
+			assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(typeName))).accepts(hints);
+		}
+	}
+
+	@Test
+	void shouldRegisterConnectionDetailsFactory() {
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(MailpitContainerConnectionDetailsFactory.class)
+			.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+	}
+
+	@Test
+	void reflectConfigShouldCoverAllBindingTypes() throws IOException {
+		Set<String> configured = new HashSet<>();
+		try (InputStream in = getClass().getResourceAsStream(REFLECT_CONFIG)) {
+			assertThat(in).isNotNull();
+			for (JsonNode entry : new ObjectMapper().readTree(in)) {
+				configured.add(entry.get("name").asText());
+			}
+		}
+
+		Set<String> registered = hints.reflection()
+			.typeHints()
+			.map(typeHint -> typeHint.getType().getName())
+			.filter(name -> name.startsWith(Message.class.getPackageName() + "."))
+			.filter(name -> !name.equals(MailpitContainerConnectionDetailsFactory.class.getName()))
+			.collect(Collectors.toSet());
+		assertThat(configured).isEqualTo(registered);
+	}
+
+}
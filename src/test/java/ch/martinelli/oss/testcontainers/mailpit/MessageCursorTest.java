@@ -0,0 +1,94 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import jakarta.mail.Message.RecipientType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class MessageCursorTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	private MailpitClient client;
+
+	@BeforeEach
+	void setUp() {
+		client = mailpit.getClient();
+		client.deleteAllMessages();
+	}
+
+	@Test
+	void shouldReturnExistingMessagesOnFirstCall() throws MessagingException {
+		sendEmail("Email 1");
+		sendEmail("Email 2");
+
+		MessageCursor cursor = new MessageCursor(client);
+
+		assertThat(cursor.next()).extracting(Message::subject).containsExactly("Email 2", "Email 1");
+	}
+
+	@Test
+	void shouldReturnOnlyNewMessagesOnSubsequentCalls() throws MessagingException {
+		sendEmail("Email 1");
+		MessageCursor cursor = new MessageCursor(client);
+		cursor.next();
+
+		sendEmail("Email 2");
+		sendEmail("Email 3");
+
+		assertThat(cursor.next()).extracting(Message::subject).containsExactly("Email 3", "Email 2");
+		assertThat(cursor.next()).isEmpty();
+	}
+
+	@Test
+	void shouldPageThroughMailboxLargerThanOnePage() throws MessagingException {
+		for (int i = 0; i < MessageCursor.PAGE_SIZE + 5; i++) {
+			sendEmail("Email " + i);
+		}
+
+		MessageCursor cursor = new MessageCursor(client);
+
+		assertThat(cursor.next()).hasSize(MessageCursor.PAGE_SIZE + 5);
+		assertThat(cursor.next()).isEmpty();
+	}
+
+	@Test
+	void shouldSkipExistingMessagesWhenStartingNow() throws MessagingException {
+		sendEmail("Email 1");
+		MessageCursor cursor = MessageCursor.startingNow(client);
+
+		sendEmail("Email 2");
+
+		assertThat(cursor.next()).extracting(Message::subject).containsExactly("Email 2");
+	}
+
+	private void sendEmail(String subject) throws MessagingException {
+		Properties props = new Properties();
+		props.put("mail.smtp.host", mailpit.getSmtpHost());
+		props.put("mail.smtp.port", String.valueOf(mailpit.getSmtpPort()));
+		props.put("mail.smtp.localhost", "localhost");
+		props.put("mail.from", "noreply@localhost");
+
+		Session session = Session.getInstance(props);
+		MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress("sender@example.com"));
+		message.setRecipient(RecipientType.TO, new InternetAddress("recipient@example.com"));
+		message.setSubject(subject);
+		message.setText("Body");
+
+		Transport.send(message);
+	}
+
+}
@@ -0,0 +1,207 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import jakarta.mail.Message.RecipientType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class MessagePublisherTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	private MailpitClient client;
+
+	@BeforeEach
+	void setUp() {
+		client = mailpit.getClient();
+		client.deleteAllMessages();
+	}
+
+	@Test
+	void shouldPublishNewMessagesInArrivalOrder() throws MessagingException {
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		try (MessagePublisher publisher = client.messagePublisher(Duration.ofMillis(100), 16,
+				MessagePublisher.OverflowPolicy.BLOCK)) {
+			publisher.subscribe(subscriber);
+
+			sendEmail("Email 1");
+			sendEmail("Email 2");
+			sendEmail("Email 3");
+
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> subscriber.messages.size() == 3);
+		}
+
+		assertThat(subscriber.messages).extracting(Message::subject).containsExactly("Email 1", "Email 2", "Email 3");
+		Awaitility.await().atMost(Duration.ofSeconds(5)).untilTrue(subscriber.completed);
+	}
+
+	@Test
+	void shouldNotPublishMessagesAlreadyInMailbox() throws MessagingException {
+		sendEmail("Existing");
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		try (MessagePublisher publisher = client.messagePublisher(Duration.ofMillis(100), 16,
+				MessagePublisher.OverflowPolicy.DROP)) {
+			publisher.subscribe(subscriber);
+
+			sendEmail("New");
+
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !subscriber.messages.isEmpty());
+			assertThat(publisher.getDroppedCount()).isZero();
+		}
+
+		assertThat(subscriber.messages).extracting(Message::subject).containsExactly("New");
+	}
+
+	@Test
+	void shouldKeepPollingAfterTransientFailure() {
+		AtomicInteger polls = new AtomicInteger();
+		MailpitClient flakyClient = new MailpitClient("http://localhost:1") {
+			@Override
+			public List<Message> getMessages(int start, int limit) {
+				int poll = polls.incrementAndGet();
+				if (poll == 2 || poll == 3) {
+					throw new MailpitException("Failed to fetch messages: HTTP 503");
+				}
+				return poll < 4 ? List.of() : List.of(new Message("id", null, null, null, null, null, null, "Late", 0,
+						Instant.now(), false, null, null, null));
+			}
+		};
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		try (MessagePublisher publisher = flakyClient.messagePublisher(Duration.ofMillis(10), 16,
+				MessagePublisher.OverflowPolicy.BLOCK)) {
+			publisher.subscribe(subscriber);
+
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !subscriber.messages.isEmpty());
+			assertThat(publisher.getFailureCount()).isEqualTo(2);
+			assertThat(subscriber.error).isNull();
+		}
+
+		assertThat(subscriber.messages).extracting(Message::subject).containsExactly("Late");
+	}
+
+	@Test
+	void shouldFailAfterTooManyConsecutiveFailures() {
+		AtomicInteger polls = new AtomicInteger();
+		MailpitClient failingClient = new MailpitClient("http://localhost:1") {
+			@Override
+			public List<Message> getMessages(int start, int limit) {
+				if (polls.incrementAndGet() > 1) {
+					throw new MailpitException("Failed to fetch messages: HTTP 503");
+				}
+				return List.of();
+			}
+		};
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		try (MessagePublisher publisher = failingClient.messagePublisher(Duration.ofMillis(1), 16,
+				MessagePublisher.OverflowPolicy.BLOCK)) {
+			publisher.subscribe(subscriber);
+
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> subscriber.error != null);
+			assertThat(publisher.getFailureCount()).isEqualTo(MessagePublisher.MAX_CONSECUTIVE_FAILURES);
+		}
+	}
+
+	@Test
+	void shouldStopBlockedPollingWhenClosed() {
+		AtomicInteger polls = new AtomicInteger();
+		MailpitClient client = new MailpitClient("http://localhost:1") {
+			@Override
+			public List<Message> getMessages(int start, int limit) {
+				int poll = polls.incrementAndGet();
+				return poll == 1 ? List.of() : List.of(message("a" + poll), message("b" + poll), message("c" + poll));
+			}
+		};
+		// Never requests messages, so its buffer fills up
+		Flow.Subscriber<Message> stalled = new CollectingSubscriber() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+			}
+		};
+		MessagePublisher publisher = client.messagePublisher(Duration.ofMillis(10), 1,
+				MessagePublisher.OverflowPolicy.BLOCK);
+		publisher.subscribe(stalled);
+		Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> polls.get() > 1);
+
+		List<Thread> pollThreads = Thread.getAllStackTraces()
+			.keySet()
+			.stream()
+			.filter(thread -> thread.getName().equals("mailpit-publisher"))
+			.toList();
+
+		publisher.close();
+
+		Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> pollThreads.stream().noneMatch(Thread::isAlive));
+	}
+
+	private static Message message(String id) {
+		return new Message(id, null, null, null, null, null, null, id, 0, Instant.now(), false, null, null, null);
+	}
+
+	private void sendEmail(String subject) throws MessagingException {
+		Properties props = new Properties();
+		props.put("mail.smtp.host", mailpit.getSmtpHost());
+		props.put("mail.smtp.port", String.valueOf(mailpit.getSmtpPort()));
+		props.put("mail.smtp.localhost", "localhost");
+		props.put("mail.from", "noreply@localhost");
+
+		Session session = Session.getInstance(props);
+		MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress("sender@example.com"));
+		message.setRecipient(RecipientType.TO, new InternetAddress("recipient@example.com"));
+		message.setSubject(subject);
+		message.setText("Body");
+
+		Transport.send(message);
+	}
+
+	private static class CollectingSubscriber implements Flow.Subscriber<Message> {
+
+		private final List<Message> messages = new CopyOnWriteArrayList<>();
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		private volatile Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			subscription.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(Message item) {
+			messages.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed.set(true);
+		}
+
+	}
+
+}
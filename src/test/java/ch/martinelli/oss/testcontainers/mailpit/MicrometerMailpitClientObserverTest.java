@@ -0,0 +1,59 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerMailpitClientObserverTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final MicrometerMailpitClientObserver observer = new MicrometerMailpitClientObserver(registry);
+
+	@Test
+	void shouldRecordRequestsPerEndpoint() {
+		observer.requestCompleted("/api/v1/messages", "GET", 200, Duration.ofMillis(20), 1000);
+		observer.requestCompleted("/api/v1/messages", "GET", 200, Duration.ofMillis(40), 3000);
+		observer.requestCompleted("/api/v1/message/{id}", "GET", 404, Duration.ofMillis(5), 20);
+
+		Timer timer = registry.get(MicrometerMailpitClientObserver.REQUESTS)
+			.tags("endpoint", "/api/v1/messages", "method", "GET", "status", "200")
+			.timer();
+		assertThat(timer.count()).isEqualTo(2);
+		assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(60);
+		DistributionSummary sizes = registry.get(MicrometerMailpitClientObserver.RESPONSE_SIZE)
+			.tag("endpoint", "/api/v1/messages")
+			.summary();
+		assertThat(sizes.totalAmount()).isEqualTo(4000);
+		assertThat(registry.get(MicrometerMailpitClientObserver.REQUESTS).tag("status", "404").timer().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldTagFailedRequestsAsIoError() {
+		observer.requestCompleted("/api/v1/messages", "DELETE", 0, Duration.ofSeconds(30), 0);
+
+		assertThat(registry.get(MicrometerMailpitClientObserver.REQUESTS).tag("status", "IO_ERROR").timer().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldRecordAwaits() {
+		observer.awaitCompleted(true, Duration.ofMillis(300));
+		observer.awaitCompleted(false, Duration.ofSeconds(10));
+
+		assertThat(registry.get(MicrometerMailpitClientObserver.AWAITS).tag("found", "true").timer().count())
+			.isEqualTo(1);
+		assertThat(registry.get(MicrometerMailpitClientObserver.AWAITS)
+			.tag("found", "false")
+			.timer()
+			.totalTime(TimeUnit.SECONDS)).isEqualTo(10);
+	}
+
+}
@@ -0,0 +1,83 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpMessage;
+import ch.martinelli.oss.testcontainers.mailpit.smtp.SmtpSubmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static ch.martinelli.oss.testcontainers.mailpit.assertions.MailpitAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+class NamespacedMailpitClientTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	private NamespacedMailpitClient first;
+
+	private NamespacedMailpitClient second;
+
+	@BeforeEach
+	void setUp() {
+		mailpit.getClient().deleteAllMessages();
+		first = mailpit.getClient().namespace("first");
+		second = mailpit.getClient().namespace("second");
+	}
+
+	@Test
+	void shouldScopeInjectedMessagesToNamespace() {
+		first.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "First", "Body"));
+		second.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Second", "Body"));
+
+		assertThat(first.getAllMessages()).extracting(Message::subject).containsExactly("First");
+		assertThat(second.getMessages(0, 10)).extracting(Message::subject).containsExactly("Second");
+		assertThat(first.getMessageCount()).isEqualTo(1);
+		assertThat(mailpit.getClient().getMessageCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldScopePlusAddressedAndTaggedSmtpMessages() {
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			submitter.submit(SmtpMessage.of("sender@example.com", first.address("alice@example.com"), "Plus", "Body"));
+			String tagged = "X-Tags: first\r\n"
+					+ SmtpMessage.of("sender@example.com", "bob@example.com", "Header", "Body").content();
+			submitter.submit(new SmtpMessage("sender@example.com", List.of("bob@example.com"), tagged));
+			submitter
+				.submit(SmtpMessage.of("sender@example.com", second.address("carol@example.com"), "Other", "Body"));
+		}
+
+		assertThat(first.getAllMessages()).extracting(Message::subject).containsExactlyInAnyOrder("Plus", "Header");
+	}
+
+	@Test
+	void shouldDeleteOnlyMessagesOfNamespace() {
+		first.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "First", "Body"));
+		second.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Second", "Body"));
+
+		first.deleteAllMessages();
+
+		assertThat(first.getMessageCount()).isZero();
+		assertThat(second.getMessageCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldAwaitMessagesOfNamespace() {
+		second.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Welcome", "Body"));
+		first.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Welcome", "Body"));
+
+		assertThat(mailpit).usingClient(first).hasMessageCount(1).awaitMessage().withSubject("Welcome").isPresent();
+	}
+
+	@Test
+	void shouldRejectInvalidNamespace() {
+		MailpitClient client = mailpit.getClient();
+		assertThatThrownBy(() -> client.namespace("with space")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,85 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+class PooledJavaMailSenderTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	private PooledJavaMailSender mailSender;
+
+	@BeforeEach
+	void setUp() {
+		mailpit.getClient().deleteAllMessages();
+		mailSender = new PooledJavaMailSender(2);
+		mailSender.setHost(mailpit.getSmtpHost());
+		mailSender.setPort(mailpit.getSmtpPort());
+	}
+
+	@AfterEach
+	void tearDown() {
+		mailSender.close();
+	}
+
+	@Test
+	void shouldReuseConnectionAcrossSends() {
+		for (int i = 0; i < 5; i++) {
+			mailSender.send(message("Message " + i));
+		}
+
+		assertThat(mailSender.getIdleCount()).isEqualTo(1);
+		assertThat(mailpit.getClient().getMessageCount()).isEqualTo(5);
+	}
+
+	@Test
+	void shouldLimitConnectionsForConcurrentSends() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 20; i++) {
+			String subject = "Concurrent " + i;
+			executor.submit(() -> mailSender.send(message(subject)));
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(mailSender.getIdleCount()).isLessThanOrEqualTo(2);
+		assertThat(mailpit.getClient().getMessageCount()).isEqualTo(20);
+	}
+
+	@Test
+	void shouldRejectSendAfterClose() {
+		mailSender.close();
+
+		SimpleMailMessage message = message("Closed");
+		assertThatThrownBy(() -> mailSender.send(message)).isInstanceOf(MailSendException.class);
+	}
+
+	@Test
+	void shouldRejectInvalidPoolSize() {
+		assertThatThrownBy(() -> new PooledJavaMailSender(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static SimpleMailMessage message(String subject) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom("sender@example.com");
+		message.setTo("recipient@example.com");
+		message.setSubject(subject);
+		message.setText("Body");
+		return message;
+	}
+
+}
@@ -0,0 +1,57 @@
+package ch.martinelli.oss.testcontainers.mailpit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SendRequestTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void shouldSerializeWithMailpitFieldNames() throws JsonProcessingException {
+		SendRequest request = SendRequest.of("sender@example.com", "recipient@example.com", "Subject", "Text")
+			.withHtml("<p>Html</p>")
+			.withCc("cc@example.com")
+			.withBcc("bcc@example.com")
+			.withTags("tag")
+			.withHeaders(Map.of("X-Test", "1"));
+
+		JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(request));
+
+		assertThat(json.get("From").get("Email").asText()).isEqualTo("sender@example.com");
+		assertThat(json.get("To").get(0).get("Email").asText()).isEqualTo("recipient@example.com");
+		assertThat(json.get("Cc").get(0).get("Email").asText()).isEqualTo("cc@example.com");
+		assertThat(json.get("Bcc").get(0).asText()).isEqualTo("bcc@example.com");
+		assertThat(json.get("Subject").asText()).isEqualTo("Subject");
+		assertThat(json.get("Text").asText()).isEqualTo("Text");
+		assertThat(json.get("HTML").asText()).isEqualTo("<p>Html</p>");
+		assertThat(json.get("Tags").get(0).asText()).isEqualTo("tag");
+		assertThat(json.get("Headers").get("X-Test").asText()).isEqualTo("1");
+	}
+
+	@Test
+	void shouldOmitUnsetFields() throws JsonProcessingException {
+		SendRequest request = SendRequest.of("sender@example.com", "recipient@example.com", "Subject", "Text");
+
+		JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(request));
+
+		assertThat(json.has("HTML")).isFalse();
+		assertThat(json.has("Attachments")).isFalse();
+		assertThat(json.get("From").has("Name")).isFalse();
+	}
+
+	@Test
+	void shouldEncodeAttachmentContentAsBase64() {
+		SendRequest.Attachment attachment = SendRequest.Attachment.of("hello.txt", "text/plain", "Hello".getBytes());
+
+		assertThat(attachment.content()).isEqualTo("SGVsbG8=");
+		assertThat(attachment.filename()).isEqualTo("hello.txt");
+	}
+
+}
@@ -0,0 +1,49 @@
+package ch.martinelli.oss.testcontainers.mailpit.assertions;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchMessageAwaiterTest {
+
+	@Test
+	void shouldDownloadEachBodyOnceForAllExpectations() {
+		AtomicInteger downloads = new AtomicInteger();
+		MailpitClient client = new MailpitClient("http://localhost:1") {
+			@Override
+			public List<Message> getMessages(int start, int limit) {
+				return List.of(message("1", "Order"), message("2", "Order"), message("3", "Order"));
+			}
+
+			@Override
+			public String getMessagePlain(String id) {
+				downloads.incrementAndGet();
+				return "Order " + id;
+			}
+		};
+		List<MessageAwaiter> expectations = List.of("1", "2", "3")
+			.stream()
+			.map(id -> new MessageAwaiter(client, Duration.ofSeconds(1), Duration.ofMillis(10)).withSubject("Order")
+				.withTextContaining("Order " + id))
+			.toList();
+
+		List<MessageAssert> result = new BatchMessageAwaiter(client, expectations, Duration.ofSeconds(1),
+				Duration.ofMillis(10))
+			.await();
+
+		assertThat(result).hasSize(3);
+		assertThat(downloads).hasValue(3);
+	}
+
+	private static Message message(String id, String subject) {
+		return new Message(id, null, null, null, null, null, null, subject, 0, Instant.now(), false, null, null, null);
+	}
+
+}
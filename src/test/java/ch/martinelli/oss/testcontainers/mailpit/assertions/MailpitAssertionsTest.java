@@ -24,7 +24,10 @@ import java.io.UnsupportedEncodingException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static ch.martinelli.oss.testcontainers.mailpit.assertions.MailpitAssertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -290,6 +293,54 @@ class MailpitAssertionsTest {
 				.hasMessageContaining("Expected no matching message");
 		}
 
+		@Test
+		void shouldCheckWholeMailboxOnEveryAbsenceCheck() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Existing", "Body");
+			MessageAwaiter awaiter = assertThat(mailpit).awaitMessage().withSubject("Existing");
+
+			assertThatThrownBy(awaiter::isAbsent).isInstanceOf(AssertionError.class);
+			assertThatThrownBy(awaiter::isAbsent).isInstanceOf(AssertionError.class);
+
+			mailpit.getClient().deleteAllMessages();
+			awaiter.isAbsent();
+		}
+
+		@Test
+		void shouldAssertMessageAbsentForWindow() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Other", "Body");
+			Instant start = Instant.now();
+
+			assertThat(mailpit).withPollInterval(Duration.ofMillis(100))
+				.awaitMessage()
+				.withSubject("Duplicate")
+				.isAbsentFor(Duration.ofMillis(500));
+
+			org.assertj.core.api.Assertions.assertThat(Duration.between(start, Instant.now()))
+				.isGreaterThanOrEqualTo(Duration.ofMillis(500));
+		}
+
+		@Test
+		void shouldFailAsSoonAsMessageArrivesDuringAbsenceWindow() {
+			new Thread(() -> {
+				try {
+					Thread.sleep(300);
+					sendEmail("sender@test.com", "recipient@test.com", "Duplicate", "Body");
+				}
+				catch (InterruptedException | MessagingException e) {
+					throw new RuntimeException(e);
+				}
+			}).start();
+			Instant start = Instant.now();
+
+			assertThatThrownBy(() -> assertThat(mailpit).withPollInterval(Duration.ofMillis(100))
+				.awaitMessage()
+				.withSubject("Duplicate")
+				.isAbsentFor(Duration.ofSeconds(10))).isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Expected no matching message within PT10S");
+			org.assertj.core.api.Assertions.assertThat(Duration.between(start, Instant.now()))
+				.isLessThan(Duration.ofSeconds(5));
+		}
+
 		@Test
 		void shouldAwaitMessageCount() {
 			new Thread(() -> {
@@ -322,6 +373,153 @@ class MailpitAssertionsTest {
 			assertThat(mailpit).withTimeout(Duration.ofSeconds(5)).awaitMessages();
 		}
 
+		@Test
+		void shouldEvaluateEachMessageOnlyOnce() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Existing 1", "Body");
+			sendEmail("sender@test.com", "recipient@test.com", "Existing 2", "Body");
+			Map<String, Integer> evaluations = new ConcurrentHashMap<>();
+
+			new Thread(() -> {
+				try {
+					Thread.sleep(500);
+					sendEmail("sender@test.com", "recipient@test.com", "Late", "Body");
+				}
+				catch (InterruptedException | MessagingException e) {
+					throw new RuntimeException(e);
+				}
+			}).start();
+
+			assertThat(mailpit).withTimeout(Duration.ofSeconds(5))
+				.withPollInterval(Duration.ofMillis(100))
+				.awaitMessage()
+				.matching(m -> {
+					evaluations.merge(m.id(), 1, Integer::sum);
+					return "Late".equals(m.subject());
+				})
+				.isPresent()
+				.hasSubject("Late");
+
+			org.assertj.core.api.Assertions.assertThat(evaluations.values()).hasSize(3).containsOnly(1);
+		}
+
+		@Test
+		void shouldAwaitMessageWithTextContaining() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Reset", "Your code is 4711");
+			sendEmail("sender@test.com", "recipient@test.com", "Reset", "Your code is 1234");
+
+			assertThat(mailpit).awaitMessage()
+				.withSubject("Reset")
+				.withTextContaining("4711")
+				.isPresent()
+				.hasSubject("Reset");
+		}
+
+		@Test
+		void shouldAwaitMessageWithHtmlMatching() throws MessagingException {
+			sendHtmlEmail("sender@test.com", "recipient@test.com", "Verify",
+					"<html><body><a href=\"https://example.com/verify?token=abc123\">Verify</a></body></html>");
+
+			assertThat(mailpit).awaitMessage()
+				.withSubject("Verify")
+				.withHtmlMatching("href=\"https://example\\.com/verify\\?token=\\w+\"")
+				.isPresent();
+		}
+
+		@Test
+		void shouldNotFindMessageWhenTextDoesNotContain() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Reset", "Your code is 1234");
+
+			assertThatThrownBy(() -> assertThat(mailpit).withTimeout(Duration.ofMillis(500))
+				.withPollInterval(Duration.ofMillis(100))
+				.awaitMessage()
+				.withTextContaining("4711")
+				.isPresent()).isInstanceOf(ConditionTimeoutException.class);
+		}
+
+		@Test
+		void shouldAwaitMessagesConcurrently() {
+			new Thread(() -> {
+				try {
+					Thread.sleep(300);
+					sendEmail("sender@test.com", "a@test.com", "Async A", "Body");
+					sendEmail("sender@test.com", "b@test.com", "Async B", "Body");
+					sendEmail("sender@test.com", "c@test.com", "Async C", "Body");
+				}
+				catch (InterruptedException | MessagingException e) {
+					throw new RuntimeException(e);
+				}
+			}).start();
+
+			CompletableFuture<MessageAssert> a = assertThat(mailpit).awaitMessage().to("a@test.com").isPresentAsync();
+			CompletableFuture<MessageAssert> b = assertThat(mailpit).awaitMessage().to("b@test.com").isPresentAsync();
+			CompletableFuture<MessageAssert> c = assertThat(mailpit).awaitMessage().to("c@test.com").isPresentAsync();
+
+			CompletableFuture.allOf(a, b, c).join();
+			a.join().hasSubject("Async A");
+			b.join().hasSubject("Async B");
+			c.join().hasSubject("Async C");
+		}
+
+		@Test
+		void shouldCompleteAsyncAwaitExceptionallyOnTimeout() {
+			CompletableFuture<MessageAssert> future = assertThat(mailpit).withTimeout(Duration.ofMillis(500))
+				.withPollInterval(Duration.ofMillis(100))
+				.awaitMessage()
+				.withSubject("Nonexistent")
+				.isPresentAsync();
+
+			assertThatThrownBy(future::join).hasCauseInstanceOf(ConditionTimeoutException.class);
+		}
+
+		@Test
+		void shouldAwaitAllExpectedMessages() {
+			new Thread(() -> {
+				try {
+					Thread.sleep(300);
+					sendEmail("sender@test.com", "a@test.com", "Welcome", "Body");
+					sendEmail("sender@test.com", "b@test.com", "Welcome", "Body");
+				}
+				catch (InterruptedException | MessagingException e) {
+					throw new RuntimeException(e);
+				}
+			}).start();
+
+			MailpitContainerAssert mailbox = assertThat(mailpit).withTimeout(Duration.ofSeconds(5));
+			List<MessageAssert> found = mailbox.awaitAll(mailbox.awaitMessage().to("a@test.com"),
+					mailbox.awaitMessage().to("b@test.com"));
+
+			found.get(0).hasRecipient("a@test.com");
+			found.get(1).hasRecipient("b@test.com");
+		}
+
+		@Test
+		void shouldNotCountMessageTwiceWhenAwaitingAll() throws MessagingException {
+			sendEmail("sender@test.com", "recipient@test.com", "Order 2", "Body");
+			sendEmail("sender@test.com", "recipient@test.com", "Order 1", "Body");
+
+			MailpitContainerAssert mailbox = assertThat(mailpit);
+			List<MessageAssert> found = mailbox.awaitAll(mailbox.awaitMessage().withSubjectContaining("Order"),
+					mailbox.awaitMessage().withSubject("Order 1"));
+
+			found.get(0).hasSubject("Order 2");
+			found.get(1).hasSubject("Order 1");
+		}
+
+		@Test
+		void shouldReportUnmatchedExpectationsWhenAwaitingAll() throws MessagingException {
+			sendEmail("sender@test.com", "a@test.com", "Welcome", "Body");
+
+			MailpitContainerAssert mailbox = assertThat(mailpit).withTimeout(Duration.ofMillis(500))
+				.withPollInterval(Duration.ofMillis(100));
+
+			assertThatThrownBy(() -> mailbox.awaitAll(mailbox.awaitMessage().to("a@test.com"),
+					mailbox.awaitMessage().withSubject("Welcome").to("b@test.com")))
+				.isInstanceOf(ConditionTimeoutException.class)
+				.hasMessageContaining("1 of 2 expected message(s) not found")
+				.hasMessageContaining("to <b@test.com>")
+				.hasMessageNotContaining("to <a@test.com>");
+		}
+
 		@Test
 		void shouldNotFindMessageWithAttachmentsWhenNoneHave() throws MessagingException {
 			sendEmail("sender@test.com", "recipient@test.com", "No Attachments", "Body");
@@ -904,6 +1102,23 @@ class MailpitAssertionsTest {
 		Transport.send(message);
 	}
 
+	private void sendHtmlEmail(String from, String to, String subject, String htmlBody) throws MessagingException {
+		Properties props = new Properties();
+		props.put("mail.smtp.host", mailpit.getSmtpHost());
+		props.put("mail.smtp.port", String.valueOf(mailpit.getSmtpPort()));
+		props.put("mail.smtp.localhost", "localhost");
+		props.put("mail.from", "noreply@localhost");
+
+		Session session = Session.getInstance(props);
+		MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress(from));
+		message.setRecipient(RecipientType.TO, new InternetAddress(to));
+		message.setSubject(subject);
+		message.setContent(htmlBody, "text/html");
+
+		Transport.send(message);
+	}
+
 	private void sendEmailWithName(String fromName, String fromAddress, String to, String subject, String body)
 			throws MessagingException, UnsupportedEncodingException {
 		Properties props = new Properties();
@@ -0,0 +1,49 @@
+package ch.martinelli.oss.testcontainers.mailpit.junit;
+
+import ch.martinelli.oss.testcontainers.mailpit.NamespacedMailpitClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailpitExtensionParameterTest {
+
+	@Test
+	void shouldRejectClientInClassLevelLifecycleMethods() throws NoSuchMethodException {
+		Method beforeAll = getClass().getDeclaredMethod("beforeAll", NamespacedMailpitClient.class);
+		ParameterContext parameterContext = proxy(ParameterContext.class, name -> switch (name) {
+			case "getParameter" -> beforeAll.getParameters()[0];
+			case "getDeclaringExecutable" -> beforeAll;
+			default -> throw new UnsupportedOperationException(name);
+		});
+		ExtensionContext extensionContext = proxy(ExtensionContext.class, name -> switch (name) {
+			case "getTestMethod" -> Optional.empty();
+			default -> throw new UnsupportedOperationException(name);
+		});
+		MailpitExtension extension = new MailpitExtension();
+
+		assertThat(extension.supportsParameter(parameterContext, extensionContext)).isTrue();
+		assertThatThrownBy(() -> extension.resolveParameter(parameterContext, extensionContext))
+			.isInstanceOf(ParameterResolutionException.class)
+			.hasMessageContaining("NamespacedMailpitClient")
+			.hasMessageContaining("beforeAll");
+	}
+
+	static void beforeAll(NamespacedMailpitClient client) {
+		// Only used for its signature
+	}
+
+	private static <T> T proxy(Class<T> type, Function<String, Object> answers) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> answers.apply(method.getName())));
+	}
+
+}
@@ -0,0 +1,57 @@
+package ch.martinelli.oss.testcontainers.mailpit.junit;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.NamespacedMailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.SendRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static ch.martinelli.oss.testcontainers.mailpit.assertions.MailpitAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MailpitTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MailpitExtensionTest {
+
+	static MailpitContainer sharedContainer;
+
+	static String previousNamespace;
+
+	@BeforeAll
+	static void setUpClass(MailpitContainer mailpit) {
+		sharedContainer = mailpit;
+	}
+
+	@BeforeEach
+	void setUp(NamespacedMailpitClient client) {
+		client.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Setup", "Body"));
+	}
+
+	@Test
+	@Order(1)
+	void shouldInjectSharedContainerAndCachedClient(MailpitContainer mailpit, MailpitClient client,
+			NamespacedMailpitClient namespacedClient) {
+		assertThat(mailpit).isSameAs(sharedContainer).isRunning();
+		assertThat(client).isSameAs(namespacedClient);
+		assertThat(namespacedClient.getNamespace()).startsWith("shouldInjectSharedContainerAndCachedClient-");
+
+		namespacedClient.sendMessage(SendRequest.of("sender@example.com", "recipient@example.com", "Test", "Body"));
+
+		assertThat(mailpit).usingClient(namespacedClient).hasMessageCount(2);
+		previousNamespace = namespacedClient.getNamespace();
+	}
+
+	@Test
+	@Order(2)
+	void shouldIsolateAndCleanUpNamespaces(MailpitContainer mailpit, NamespacedMailpitClient client) {
+		assertThat(client.getNamespace()).isNotEqualTo(previousNamespace);
+		assertThat(client.getMessageCount()).isEqualTo(1);
+		assertThat(mailpit.getClient().namespace(previousNamespace).getMessageCount()).isZero();
+	}
+
+}
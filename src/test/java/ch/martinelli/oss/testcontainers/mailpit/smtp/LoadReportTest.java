@@ -0,0 +1,42 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadReportTest {
+
+	@Test
+	void shouldComputeThroughput() {
+		LoadReport report = LoadReport.of(new long[] { 1, 2, 3, 4 }, 1, Duration.ofSeconds(2));
+
+		assertThat(report.sent()).isEqualTo(4);
+		assertThat(report.failed()).isEqualTo(1);
+		assertThat(report.throughput()).isEqualTo(2.0);
+	}
+
+	@Test
+	void shouldComputePercentiles() {
+		long[] latencies = LongStream.rangeClosed(1, 100).map(i -> i * 1_000_000).toArray();
+
+		LoadReport report = LoadReport.of(latencies, 0, Duration.ofSeconds(1));
+
+		assertThat(report.p50()).isEqualTo(Duration.ofMillis(50));
+		assertThat(report.p90()).isEqualTo(Duration.ofMillis(90));
+		assertThat(report.p99()).isEqualTo(Duration.ofMillis(99));
+		assertThat(report.max()).isEqualTo(Duration.ofMillis(100));
+	}
+
+	@Test
+	void shouldReturnZeroLatenciesWhenNothingWasSent() {
+		LoadReport report = LoadReport.of(new long[0], 3, Duration.ofSeconds(1));
+
+		assertThat(report.sent()).isZero();
+		assertThat(report.throughput()).isZero();
+		assertThat(report.p99()).isEqualTo(Duration.ZERO);
+	}
+
+}
@@ -0,0 +1,101 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmtpConnectionTest {
+
+	@Test
+	void shouldAbortPipelinedTransactionWhenRecipientIsRejected() throws Exception {
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			CompletableFuture<List<String>> received = CompletableFuture
+				.supplyAsync(() -> serveRejectingSecondRecipient(server));
+
+			SmtpConnection connection = new SmtpConnection("localhost", server.getLocalPort(), Duration.ofSeconds(5));
+			SmtpMessage message = new SmtpMessage("sender@test.com", List.of("a@test.com", "b@test.com"),
+					"Subject: Partial\r\n\r\nBody");
+
+			assertThatThrownBy(() -> connection.send(message)).isInstanceOf(MailpitException.class)
+				.hasMessageContaining("b@test.com");
+			connection.close();
+
+			assertThat(received.get(5, TimeUnit.SECONDS)).doesNotContain(".", "Body");
+		}
+	}
+
+	@Test
+	void shouldDetectConnectionClosedByServer() throws Exception {
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			CompletableFuture<Void> session = CompletableFuture.runAsync(() -> {
+				try (Socket socket = server.accept()) {
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					OutputStream out = socket.getOutputStream();
+					out.write("220 test\r\n".getBytes(StandardCharsets.UTF_8));
+					reader.readLine();
+					out.write("250 test\r\n".getBytes(StandardCharsets.UTF_8));
+					reader.readLine();
+					out.write("250 OK\r\n".getBytes(StandardCharsets.UTF_8));
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+
+			SmtpConnection connection = new SmtpConnection("localhost", server.getLocalPort(), Duration.ofSeconds(5));
+			assertThat(connection.isAlive()).isTrue();
+			session.get(5, TimeUnit.SECONDS);
+
+			assertThat(connection.isAlive()).isFalse();
+			connection.close();
+		}
+	}
+
+	/**
+	 * Accepts a single pipelining session that rejects the second recipient and returns
+	 * the lines received after the DATA command.
+	 */
+	private static List<String> serveRejectingSecondRecipient(ServerSocket server) {
+		List<String> dataLines = new ArrayList<>();
+		try (Socket socket = server.accept()) {
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			OutputStream out = socket.getOutputStream();
+			out.write("220 test\r\n".getBytes(StandardCharsets.UTF_8));
+			reader.readLine();
+			out.write("250-test\r\n250 PIPELINING\r\n".getBytes(StandardCharsets.UTF_8));
+			reader.readLine();
+			reader.readLine();
+			reader.readLine();
+			reader.readLine();
+			out.write("250 OK\r\n250 OK\r\n550 Rejected\r\n354 Go ahead\r\n".getBytes(StandardCharsets.UTF_8));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				dataLines.add(line);
+			}
+		}
+		catch (IOException e) {
+			// the client dropped the connection
+		}
+		return dataLines;
+	}
+
+}
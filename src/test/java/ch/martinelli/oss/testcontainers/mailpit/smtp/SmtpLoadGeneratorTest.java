@@ -0,0 +1,59 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class SmtpLoadGeneratorTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	@BeforeEach
+	void setUp() {
+		mailpit.getClient().deleteAllMessages();
+	}
+
+	@Test
+	void shouldSendAllMessages() {
+		LoadReport report = new SmtpLoadGenerator(mailpit).withConnections(3).withMessageCount(30).run();
+
+		assertThat(report.sent()).isEqualTo(30);
+		assertThat(report.failed()).isZero();
+		assertThat(report.throughput()).isPositive();
+		assertThat(report.p50()).isLessThanOrEqualTo(report.p99());
+		Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> mailpit.getClient().getMessageCount() == 30);
+	}
+
+	@Test
+	void shouldPaceMessagesToTargetRate() {
+		LoadReport report = new SmtpLoadGenerator(mailpit).withConnections(2).withMessageCount(20).withRate(40).run();
+
+		assertThat(report.sent()).isEqualTo(20);
+		assertThat(report.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(450));
+	}
+
+	@Test
+	void shouldSendCustomMessages() {
+		LoadReport report = new SmtpLoadGenerator(mailpit).withMessageCount(2)
+			.withMessages(i -> SmtpMessage.of("custom@test.com", "recipient@test.com", "Custom " + i, "Body"))
+			.run();
+
+		assertThat(report.sent()).isEqualTo(2);
+		Awaitility.await()
+			.atMost(Duration.ofSeconds(10))
+			.until(() -> mailpit.getClient()
+				.getAllMessages()
+				.stream()
+				.allMatch(m -> m.subject().startsWith("Custom ") && "custom@test.com".equals(m.from().address())));
+	}
+
+}
@@ -0,0 +1,67 @@
+package ch.martinelli.oss.testcontainers.mailpit.smtp;
+
+import ch.martinelli.oss.testcontainers.mailpit.MailpitClient;
+import ch.martinelli.oss.testcontainers.mailpit.MailpitContainer;
+import ch.martinelli.oss.testcontainers.mailpit.Message;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class SmtpSubmitterTest {
+
+	@Container
+	static MailpitContainer mailpit = new MailpitContainer();
+
+	private MailpitClient client;
+
+	@BeforeEach
+	void setUp() {
+		client = mailpit.getClient();
+		client.deleteAllMessages();
+	}
+
+	@Test
+	void shouldSubmitManyMessagesOverReusedConnections() {
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			submitter.submit(IntStream.range(0, 100)
+				.mapToObj(i -> SmtpMessage.of("sender@test.com", "recipient@test.com", "Fixture " + i, "Body"))
+				.toList());
+			submitter.submit(SmtpMessage.of("sender@test.com", "recipient@test.com", "Second batch", "Body"));
+		}
+
+		Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> client.getMessageCount() == 101);
+	}
+
+	@Test
+	void shouldSubmitMessageToMultipleRecipients() {
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			submitter.submit(new SmtpMessage("sender@test.com", List.of("a@test.com", "b@test.com"),
+					"From: sender@test.com\r\nTo: a@test.com, b@test.com\r\nSubject: Multi\r\n\r\nBody"));
+		}
+
+		Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> client.getMessageCount() == 1);
+		Message message = client.getAllMessages().get(0);
+		assertThat(message.subject()).isEqualTo("Multi");
+		assertThat(message.to()).hasSize(2);
+	}
+
+	@Test
+	void shouldPreserveLinesStartingWithDot() {
+		try (SmtpSubmitter submitter = new SmtpSubmitter(mailpit)) {
+			submitter.submit(SmtpMessage.of("sender@test.com", "recipient@test.com", "Dots", ".first\r\n..second"));
+		}
+
+		Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> client.getMessageCount() == 1);
+		assertThat(client.getMessagePlain(client.getAllMessages().get(0).id())).contains(".first").contains("..second");
+	}
+
+}